@@ -135,22 +135,23 @@ public final class ARGBColor {
 	 * @throws IllegalArgumentException 範囲外の場合.<br>
 	 */
 	private static void checkColor(int a, int r, int g, int b) throws IllegalArgumentException {
-		String badComp = "";
-		if (a < 0 || a > 255) {
-			badComp += " A";
+		if (checkRange(a, r, g, b)) {
+			return;
 		}
-		if (r < 0 || r > 255) {
-			badComp += " R";
+		StringBuilder badComp = new StringBuilder();
+		if ((a & ~0xFF) != 0) {
+			badComp.append(" A");
 		}
-		if (g < 0 || g > 255) {
-			badComp += " G";
+		if ((r & ~0xFF) != 0) {
+			badComp.append(" R");
 		}
-		if (b < 0 || b > 255) {
-			badComp += " B";
+		if ((g & ~0xFF) != 0) {
+			badComp.append(" G");
 		}
-		if (!"".equals(badComp)) {
-			throw new IllegalArgumentException("out of range : " + badComp);
+		if ((b & ~0xFF) != 0) {
+			badComp.append(" B");
 		}
+		throw new IllegalArgumentException("out of range : " + badComp);
 	}
 
 	/**
@@ -164,12 +165,7 @@ public final class ARGBColor {
 	 * @return 範囲内のときtrueを返す.<br>
 	 */
 	public static boolean checkRange(int a, int r, int g, int b) {
-		try {
-			checkColor(a, r, g, b);
-			return true;
-		} catch (IllegalArgumentException iae) {
-			return false;
-		}
+		return ((a | r | g | b) & ~0xFF) == 0;
 	}
 
 	/**
@@ -205,6 +201,251 @@ public final class ARGBColor {
 		return a << 24 | r << 16 | g << 8 | b;
 	}
 
+	/**
+	 * 0から255で指定された色情報を範囲を検査せずにARGBに変換します.
+	 * 範囲外の値を指定した場合の結果は定義されていません。外部からの入力にはtoARGBを使用してください。<br>
+	 *
+	 * @param r RED成分.<br>
+	 * @param g GREEN成分.<br>
+	 * @param b BLUE成分.<br>
+	 *
+	 * @return 指定された色情報の不透明なARGB.<br>
+	 */
+	public static int toARGBUnchecked(int r, int g, int b) {
+		return ARGB_ALPHA_MASK | r << 16 | g << 8 | b;
+	}
+
+	/**
+	 * 0から255で指定された色情報を範囲を検査せずにARGBに変換します.
+	 * 範囲外の値を指定した場合の結果は定義されていません。外部からの入力にはtoARGBを使用してください。<br>
+	 *
+	 * @param a アルファ成分.<br>
+	 * @param r RED成分.<br>
+	 * @param g GREEN成分.<br>
+	 * @param b BLUE成分.<br>
+	 *
+	 * @return 指定された色情報のARGB.<br>
+	 */
+	public static int toARGBUnchecked(int a, int r, int g, int b) {
+		return a << 24 | r << 16 | g << 8 | b;
+	}
+
+	/**
+	 * 色情報を0から255に丸めてARGBに変換します.
+	 *
+	 * @param a アルファ成分.<br>
+	 * @param r RED成分.<br>
+	 * @param g GREEN成分.<br>
+	 * @param b BLUE成分.<br>
+	 *
+	 * @return 丸められた色情報のARGB.<br>
+	 */
+	public static int toARGBClamped(int a, int r, int g, int b) {
+		return clamp(a) << 24 | clamp(r) << 16 | clamp(g) << 8 | clamp(b);
+	}
+
+	/**
+	 * 値を分岐を使わずに0から255に丸めます.
+	 *
+	 * @param v 値.<br>
+	 *
+	 * @return 0未満の場合は0、255より大きい場合は255、それ以外はvを返します。<br>
+	 */
+	public static int clamp(int v) {
+		v &= ~(v >> 31);
+		v |= (255 - v) >> 31;
+		return v & 0xFF;
+	}
+
+	/**
+	 * ARGBのアルファ成分を置き換えます.
+	 *
+	 * @param argb ARGB.<br>
+	 * @param a 新しいアルファ成分.下位8ビットのみが使用されます。<br>
+	 *
+	 * @return アルファ成分を置き換えたARGB.<br>
+	 */
+	public static int withAlpha(int argb, int a) {
+		return argb & ~ARGB_ALPHA_MASK | (a & 0xFF) << 24;
+	}
+
+	/**
+	 * ARGBのRED成分を置き換えます.
+	 *
+	 * @param argb ARGB.<br>
+	 * @param r 新しいRED成分.下位8ビットのみが使用されます。<br>
+	 *
+	 * @return RED成分を置き換えたARGB.<br>
+	 */
+	public static int withRed(int argb, int r) {
+		return argb & ~ARGB_RED_MASK | (r & 0xFF) << 16;
+	}
+
+	/**
+	 * ARGBのGREEN成分を置き換えます.
+	 *
+	 * @param argb ARGB.<br>
+	 * @param g 新しいGREEN成分.下位8ビットのみが使用されます。<br>
+	 *
+	 * @return GREEN成分を置き換えたARGB.<br>
+	 */
+	public static int withGreen(int argb, int g) {
+		return argb & ~ARGB_GREEN_MASK | (g & 0xFF) << 8;
+	}
+
+	/**
+	 * ARGBのBLUE成分を置き換えます.
+	 *
+	 * @param argb ARGB.<br>
+	 * @param b 新しいBLUE成分.下位8ビットのみが使用されます。<br>
+	 *
+	 * @return BLUE成分を置き換えたARGB.<br>
+	 */
+	public static int withBlue(int argb, int b) {
+		return argb & ~ARGB_BLUE_MASK | b & 0xFF;
+	}
+
+	/**
+	 * 成分ごとの配列をARGBの配列に変換します.範囲は検査されません。
+	 *
+	 * @param a アルファ成分の配列.<br>
+	 * @param r RED成分の配列.<br>
+	 * @param g GREEN成分の配列.<br>
+	 * @param b BLUE成分の配列.<br>
+	 * @param dst 結果を格納する配列.<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 */
+	public static void pack(int[] a, int[] r, int[] g, int[] b, int[] dst, int from, int to) {
+		for (int i = from; i < to; i++) {
+			dst[i] = a[i] << 24 | r[i] << 16 | g[i] << 8 | b[i];
+		}
+	}
+
+	/**
+	 * 成分ごとの配列をARGBの配列に変換します.範囲は検査されません。
+	 *
+	 * @param a アルファ成分の配列.<br>
+	 * @param r RED成分の配列.<br>
+	 * @param g GREEN成分の配列.<br>
+	 * @param b BLUE成分の配列.<br>
+	 * @param dst 結果を格納する配列.<br>
+	 */
+	public static void pack(int[] a, int[] r, int[] g, int[] b, int[] dst) {
+		pack(a, r, g, b, dst, 0, dst.length);
+	}
+
+	/**
+	 * ARGBの配列を成分ごとの配列に分解します.
+	 *
+	 * @param src ARGBの配列.<br>
+	 * @param a アルファ成分を格納する配列.<br>
+	 * @param r RED成分を格納する配列.<br>
+	 * @param g GREEN成分を格納する配列.<br>
+	 * @param b BLUE成分を格納する配列.<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 */
+	public static void unpack(int[] src, int[] a, int[] r, int[] g, int[] b, int from, int to) {
+		for (int i = from; i < to; i++) {
+			int v = src[i];
+			a[i] = v >>> 24;
+			r[i] = v >>> 16 & 0xFF;
+			g[i] = v >>> 8 & 0xFF;
+			b[i] = v & 0xFF;
+		}
+	}
+
+	/**
+	 * ARGBの配列を成分ごとの配列に分解します.
+	 *
+	 * @param src ARGBの配列.<br>
+	 * @param a アルファ成分を格納する配列.<br>
+	 * @param r RED成分を格納する配列.<br>
+	 * @param g GREEN成分を格納する配列.<br>
+	 * @param b BLUE成分を格納する配列.<br>
+	 */
+	public static void unpack(int[] src, int[] a, int[] r, int[] g, int[] b) {
+		unpack(src, a, r, g, b, 0, src.length);
+	}
+
+	/**
+	 * 配列の値を0から255に丸めます.
+	 *
+	 * @param v 丸める配列.結果はこの配列に上書きされます。<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 */
+	public static void clamp(int[] v, int from, int to) {
+		for (int i = from; i < to; i++) {
+			v[i] = clamp(v[i]);
+		}
+	}
+
+	/**
+	 * 配列の値を0から255に丸めます.
+	 *
+	 * @param v 丸める配列.結果はこの配列に上書きされます。<br>
+	 */
+	public static void clamp(int[] v) {
+		clamp(v, 0, v.length);
+	}
+
+	/**
+	 * 0から65025の値を255で除算します.除算を使わずに丸めた結果を返します。
+	 *
+	 * @param v 値.<br>
+	 *
+	 * @return v / 255 を四捨五入した値.<br>
+	 */
+	public static int div255(int v) {
+		v += 128;
+		return (v + (v >>> 8)) >>> 8;
+	}
+
+	/**
+	 * ARGBをRGB成分にアルファ成分を乗算した形式(乗算済みアルファ)に変換します.
+	 *
+	 * @param argb ARGB.<br>
+	 *
+	 * @return 乗算済みのARGB.<br>
+	 */
+	public static int premultiply(int argb) {
+		int a = argb >>> 24;
+		if (a == ALPHA_OPAQUE) {
+			return argb;
+		}
+		if (a == ALPHA_TRANSPARENT) {
+			return CLEAR_BLACK;
+		}
+		return a << 24
+				| div255((argb >>> 16 & 0xFF) * a) << 16
+				| div255((argb >>> 8 & 0xFF) * a) << 8
+				| div255((argb & 0xFF) * a);
+	}
+
+	/**
+	 * 乗算済みアルファのARGBを通常のARGBに変換します.
+	 *
+	 * @param pargb 乗算済みのARGB.<br>
+	 *
+	 * @return ARGB.<br>
+	 */
+	public static int unpremultiply(int pargb) {
+		int a = pargb >>> 24;
+		if (a == ALPHA_OPAQUE) {
+			return pargb;
+		}
+		if (a == ALPHA_TRANSPARENT) {
+			return CLEAR_BLACK;
+		}
+		int h = a >> 1;
+		return a << 24
+				| Math.min(255, ((pargb >>> 16 & 0xFF) * 255 + h) / a) << 16
+				| Math.min(255, ((pargb >>> 8 & 0xFF) * 255 + h) / a) << 8
+				| Math.min(255, ((pargb & 0xFF) * 255 + h) / a);
+	}
+
 	/**
 	 * AWTカラーをARGBに変換します.<br>
 	 *
@@ -243,10 +484,7 @@ public final class ARGBColor {
 	}
 
 	public static int reverse(int argb) {
-		return toARGB(getAlpha(argb),
-				255 - getRed(argb),
-				255 - getGreen(argb),
-				255 - getBlue(argb));
+		return argb ^ CLEAR_WHITE;
 	}
 
 	/**
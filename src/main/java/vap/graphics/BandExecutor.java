@@ -0,0 +1,318 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 画像を行単位の帯（バンド）に分割し、ピクセル処理を並列に実行するエグゼキュータです.
+ * <br>
+ * バンドの高さは1バンドあたりのピクセルデータがCPUキャッシュに収まるように幅から算出されます。
+ * 処理するピクセル数が閾値未満の場合は、呼び出し元のスレッドで逐次実行します。<br>
+ * 既定のインスタンスはSwingのイベントディスパッチスレッドと競合しないよう、
+ * (CPU数 - 1)の並列度を持つ専用のForkJoinPoolを使用します。<br>
+ * <br>
+ *
+ * @version 1.0.0 - 2026/10/18_10:12:40<br>
+ * @author Shinacho<br>
+ */
+public final class BandExecutor {
+
+	/**
+	 * 行の範囲に対して実行される処理です.
+	 */
+	@FunctionalInterface
+	public interface BandTask {
+
+		/**
+		 * 指定された行範囲を処理します.
+		 *
+		 * @param startY 処理する最初の行.<br>
+		 * @param endY 処理する最後の行の次の行.<br>
+		 */
+		void run(int startY, int endY);
+	}
+
+	/**
+	 * 1行分のピクセルに対して実行される処理です.
+	 */
+	@FunctionalInterface
+	public interface RowKernel {
+
+		/**
+		 * 1行を処理します.
+		 *
+		 * @param src 入力ピクセル.<br>
+		 * @param dst 出力ピクセル.srcと同じ配列の場合もあります。<br>
+		 * @param offset この行の先頭のインデックス.<br>
+		 * @param width 行のピクセル数.<br>
+		 * @param y 行番号.<br>
+		 */
+		void apply(int[] src, int[] dst, int offset, int width, int y);
+	}
+
+	/**
+	 * 並列化を行う最小のピクセル数の既定値です.
+	 */
+	public static final int DEFAULT_THRESHOLD = 256 * 256;
+	/**
+	 * 1バンドあたりのデータ量の目安(バイト)です.L2キャッシュに収まる大きさです。
+	 */
+	private static final int BAND_BYTES = 64 * 1024;
+
+	private static volatile BandExecutor defaultExecutor;
+
+	/**
+	 * 既定のエグゼキュータを返します.
+	 *
+	 * @return 既定のエグゼキュータ.<br>
+	 */
+	public static BandExecutor getDefault() {
+		BandExecutor e = defaultExecutor;
+		if (e == null) {
+			synchronized (BandExecutor.class) {
+				e = defaultExecutor;
+				if (e == null) {
+					defaultExecutor = e = new BandExecutor(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+				}
+			}
+		}
+		return e;
+	}
+
+	/**
+	 * 既定のエグゼキュータを変更します.
+	 *
+	 * @param e 新しい既定のエグゼキュータ.<br>
+	 */
+	public static void setDefault(BandExecutor e) {
+		if (e == null) {
+			throw new IllegalArgumentException("executor is null");
+		}
+		defaultExecutor = e;
+	}
+
+	/**
+	 * 常に呼び出し元のスレッドで逐次実行するエグゼキュータを作成します.
+	 *
+	 * @return 逐次実行するエグゼキュータ.<br>
+	 */
+	public static BandExecutor sequential() {
+		return new BandExecutor(null, Integer.MAX_VALUE);
+	}
+
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	/**
+	 * 指定された並列度の専用プールを持つエグゼキュータを作成します.
+	 * プールのスレッドはデーモンスレッドです。<br>
+	 *
+	 * @param parallelism 並列度.<br>
+	 */
+	public BandExecutor(int parallelism) {
+		this(newPool(parallelism), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * 指定されたプールを使用するエグゼキュータを作成します.
+	 *
+	 * @param pool 使用するプール.nullの場合は常に逐次実行します。<br>
+	 * @param threshold この値未満のピクセル数の処理は逐次実行されます。<br>
+	 */
+	public BandExecutor(ForkJoinPool pool, int threshold) {
+		if (threshold < 0) {
+			throw new IllegalArgumentException("threshold < 0 : threshold=[" + threshold + "]");
+		}
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	private static ForkJoinPool newPool(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism < 1 : parallelism=[" + parallelism + "]");
+		}
+		AtomicInteger n = new AtomicInteger();
+		return new ForkJoinPool(parallelism, p -> {
+			ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+			t.setName("vap-band-" + n.getAndIncrement());
+			t.setDaemon(true);
+			return t;
+		}, null, false);
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	public int getThreshold() {
+		return threshold;
+	}
+
+	public int getParallelism() {
+		return pool == null ? 1 : pool.getParallelism();
+	}
+
+	/**
+	 * 指定された幅の画像を処理する場合のバンドの高さを返します.
+	 *
+	 * @param width 画像の幅.<br>
+	 *
+	 * @return バンドの行数.1以上です。<br>
+	 */
+	public static int bandHeight(int width) {
+		return Math.max(1, BAND_BYTES / (Math.max(1, width) * Integer.BYTES));
+	}
+
+	/**
+	 * 指定されたサイズの処理を並列に実行するかを判定します.
+	 *
+	 * @param width 幅.<br>
+	 * @param height 高さ.<br>
+	 *
+	 * @return 並列に実行する場合true.<br>
+	 */
+	public boolean isParallel(int width, int height) {
+		return pool != null && pool.getParallelism() > 1
+				&& height > 1 && (long) width * height >= threshold;
+	}
+
+	/**
+	 * 画像を行のバンドに分割し、各バンドに対して処理を実行します.
+	 * このメソッドは全てのバンドの処理が完了するまで戻りません。<br>
+	 *
+	 * @param width 画像の幅.<br>
+	 * @param height 画像の高さ.<br>
+	 * @param task 各バンドに対して実行する処理.<br>
+	 */
+	public void forEachBand(int width, int height, BandTask task) {
+		forEachBand(width, height, bandHeight(width), task);
+	}
+
+	/**
+	 * 画像を指定された行数のバンドに分割し、各バンドに対して処理を実行します.
+	 * バンドの境界は常にbandHeightの倍数になります。<br>
+	 *
+	 * @param width 画像の幅.<br>
+	 * @param height 画像の高さ.<br>
+	 * @param bandHeight バンドの行数.<br>
+	 * @param task 各バンドに対して実行する処理.<br>
+	 */
+	public void forEachBand(int width, int height, int bandHeight, BandTask task) {
+		if (bandHeight < 1) {
+			throw new IllegalArgumentException("bandHeight < 1 : bandHeight=[" + bandHeight + "]");
+		}
+		if (height <= 0) {
+			return;
+		}
+		if (!isParallel(width, height) || height <= bandHeight) {
+			task.run(0, height);
+			return;
+		}
+		int bands = (height + bandHeight - 1) / bandHeight;
+		pool.invoke(new BandAction(task, 0, bands, bandHeight, height));
+	}
+
+	/**
+	 * 行ごとの処理を実行します.
+	 *
+	 * @param src 入力ピクセル.<br>
+	 * @param dst 出力ピクセル.srcと同じ配列を指定できます。<br>
+	 * @param width 画像の幅.<br>
+	 * @param height 画像の高さ.<br>
+	 * @param kernel 各行に対して実行する処理.<br>
+	 */
+	public void forEachRow(int[] src, int[] dst, int width, int height, RowKernel kernel) {
+		checkLength(src, width, height);
+		checkLength(dst, width, height);
+		forEachBand(width, height, (startY, endY) -> {
+			for (int y = startY, offset = startY * width; y < endY; y++, offset += width) {
+				kernel.apply(src, dst, offset, width, y);
+			}
+		});
+	}
+
+	/**
+	 * ピクセルごとの処理を実行します.
+	 *
+	 * @param src 入力ピクセル.<br>
+	 * @param dst 出力ピクセル.srcと同じ配列を指定できます。<br>
+	 * @param width 画像の幅.<br>
+	 * @param height 画像の高さ.<br>
+	 * @param op ARGBを変換する処理.並列に呼び出されるため、状態を持たないようにしてください。<br>
+	 */
+	public void forEachPixel(int[] src, int[] dst, int width, int height, IntUnaryOperator op) {
+		checkLength(src, width, height);
+		checkLength(dst, width, height);
+		forEachBand(width, height, (startY, endY) -> {
+			for (int i = startY * width, end = endY * width; i < end; i++) {
+				dst[i] = op.applyAsInt(src[i]);
+			}
+		});
+	}
+
+	private static void checkLength(int[] pix, int width, int height) {
+		if (pix.length < width * height) {
+			throw new IllegalArgumentException("buffer is too small : length=[" + pix.length
+					+ "], size=[" + width + "x" + height + "]");
+		}
+	}
+
+	private static final class BandAction extends RecursiveAction {
+
+		private final BandTask task;
+		private final int fromBand;
+		private final int toBand;
+		private final int bandHeight;
+		private final int height;
+
+		BandAction(BandTask task, int fromBand, int toBand, int bandHeight, int height) {
+			this.task = task;
+			this.fromBand = fromBand;
+			this.toBand = toBand;
+			this.bandHeight = bandHeight;
+			this.height = height;
+		}
+
+		@Override
+		protected void compute() {
+			if (toBand - fromBand <= 1) {
+				task.run(fromBand * bandHeight, Math.min(height, toBand * bandHeight));
+				return;
+			}
+			int mid = (fromBand + toBand) >>> 1;
+			invokeAll(new BandAction(task, fromBand, mid, bandHeight, height),
+					new BandAction(task, mid, toBand, bandHeight, height));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "BandExecutor{" + "parallelism=" + getParallelism() + ", threshold=" + threshold + '}';
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import static vap.graphics.ARGBColor.div255;
+
+/**
+ * Compositorで使用するブレンドモードです.
+ * <br>
+ * 計算式はW3CのCompositing and Blending Level 1の分離可能なブレンドモードに従います。
+ * 乗算済みアルファの色をSc、Dc、アルファをSa、Daとしたとき、結果のアルファは Sa + Da - Sa * Da、
+ * 色は Sc * (1 - Da) + Dc * (1 - Sa) + Sa * Da * B(Cs, Cb) です。Bは各モードのブレンド関数です。<br>
+ * ブレンド関数は8ビットの整数とARGBColor.div255で計算し、
+ * 乗算済みの色は8ビットに丸めずに計算して最後に結果のアルファで除算します。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_22:15:26<br>
+ * @author Shinacho<br>
+ */
+public enum BlendMode implements Compositor.PixelOperator {
+
+	/**
+	 * 描画先の上に描画します.CompositeRule.SRC_OVERと同じ結果になります。
+	 */
+	NORMAL,
+	/**
+	 * 乗算です.結果は元の色より暗くなります。影や色付けに使用します。
+	 */
+	MULTIPLY,
+	/**
+	 * スクリーンです.結果は元の色より明るくなります。光の表現に使用します。
+	 */
+	SCREEN,
+	/**
+	 * オーバーレイです.描画先の暗い部分は乗算、明るい部分はスクリーンになり、コントラストが強くなります。
+	 */
+	OVERLAY,
+	/**
+	 * 加算です.各色の和を255で飽和させます。発光の表現に使用します。
+	 */
+	ADD,
+	/**
+	 * 比較(明)です.各色の明るい方を使用します。
+	 */
+	LIGHTEN,
+	/**
+	 * 比較(暗)です.各色の暗い方を使用します。
+	 */
+	DARKEN;
+
+	/**
+	 * ブレンド関数です.
+	 *
+	 * @param cs 描画する画像の色.乗算済みではない0から255の値.<br>
+	 * @param cb 描画先の色.乗算済みではない0から255の値.<br>
+	 *
+	 * @return 0から255の値.<br>
+	 */
+	int blend(int cs, int cb) {
+		//定数ごとのメソッドにすると呼び出しが仮想呼び出しになるため、switchで分岐する
+		return switch (this) {
+			case NORMAL ->
+				cs;
+			case MULTIPLY ->
+				div255(cs * cb);
+			case SCREEN ->
+				cs + cb - div255(cs * cb);
+			case OVERLAY ->
+				cb < 128
+				? div255(2 * cs * cb)
+				: 255 - div255(2 * (255 - cs) * (255 - cb));
+			case ADD ->
+				Math.min(255, cs + cb);
+			case LIGHTEN ->
+				Math.max(cs, cb);
+			case DARKEN ->
+				Math.min(cs, cb);
+		};
+	}
+
+	@Override
+	public int apply(int s, int d) {
+		int sa = s >>> 24;
+		int da = d >>> 24;
+		//各項の重み.重みの和は丸める前のアルファ(255 * 255倍)で、色の積和は255 * 255 * 255を超えない
+		int ws = sa * (255 - da);
+		int wd = da * (255 - sa);
+		int wb = sa * da;
+		int div = ws + wd + wb;
+		if (div == 0) {
+			return 0;
+		}
+		long rcp = Compositor.reciprocal(div);
+		int sr = s >>> 16 & 0xFF;
+		int sg = s >>> 8 & 0xFF;
+		int sb = s & 0xFF;
+		int dr = d >>> 16 & 0xFF;
+		int dg = d >>> 8 & 0xFF;
+		int db = d & 0xFF;
+		return div255(div) << 24
+				| Compositor.quotient(sr * ws + dr * wd + blend(sr, dr) * wb, div, rcp) << 16
+				| Compositor.quotient(sg * ws + dg * wd + blend(sg, dg) * wb, div, rcp) << 8
+				| Compositor.quotient(sb * ws + db * wd + blend(sb, db) * wb, div, rcp);
+	}
+}
@@ -0,0 +1,239 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+/**
+ * 条件を満たすピクセルを全て含む最小の矩形を算出します.
+ * <br>
+ * 上下左右の端から内側に向かって走査し、条件を満たすピクセルが見つかった時点でその方向の走査を終了します。
+ * 各ピクセルの条件の判定は最大1回だけ行われます。
+ * 画像は走査に必要な範囲だけを行ごとにPixelBufferPoolから借りた配列へ読み込むため、画像全体の複製は作成せず、
+ * 繰り返し走査しても新しい配列は確保されません。<br>
+ * 左右の走査は行のバンドに分割して並列に実行できます。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_12:20:41<br>
+ * @author Shinacho<br>
+ */
+public final class BoundingBoxScanner {
+
+	/**
+	 * ユーティリティクラスのためインスタンス化できません.
+	 */
+	private BoundingBoxScanner() {
+	}
+
+	/**
+	 * 画像内で条件を満たすピクセルを全て含む最小の矩形を算出します.
+	 *
+	 * @param image 画像.<br>
+	 * @param p ARGBに対する条件.<br>
+	 *
+	 * @return 矩形.条件を満たすピクセルがない場合はnull.<br>
+	 */
+	public static Rectangle scan(BufferedImage image, IntPredicate p) {
+		return scan(image, p, BandExecutor.getDefault());
+	}
+
+	/**
+	 * 画像内で条件を満たすピクセルを全て含む最小の矩形を算出します.
+	 *
+	 * @param image 画像.<br>
+	 * @param p ARGBに対する条件.並列に実行される場合があります。<br>
+	 * @param executor 左右の走査を実行するエグゼキュータ.<br>
+	 *
+	 * @return 矩形.条件を満たすピクセルがない場合はnull.<br>
+	 */
+	public static Rectangle scan(BufferedImage image, IntPredicate p, BandExecutor executor) {
+		int w = image.getWidth();
+		return scan(new Rows() {
+			@Override
+			public int firstMatch(int y, int from, int to, int[] buf, IntPredicate p) {
+				ImageUtil.getPixels(image, from, y, to - from, 1, buf, 0, to - from);
+				int x = BoundingBoxScanner.firstMatch(buf, 0, 0, to - from, p);
+				return x < 0 ? -1 : from + x;
+			}
+
+			@Override
+			public int lastMatch(int y, int from, int to, int[] buf, IntPredicate p) {
+				ImageUtil.getPixels(image, from, y, to - from, 1, buf, 0, to - from);
+				int x = BoundingBoxScanner.lastMatch(buf, 0, 0, to - from, p);
+				return x < 0 ? -1 : from + x;
+			}
+		}, w, w, image.getHeight(), p, executor);
+	}
+
+	/**
+	 * ピクセル配列内で条件を満たすピクセルを全て含む最小の矩形を算出します.
+	 *
+	 * @param pix ピクセル配列.<br>
+	 * @param offset 左上のピクセルのインデックス.<br>
+	 * @param stride 行の間隔.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param p ARGBに対する条件.並列に実行される場合があります。<br>
+	 * @param executor 左右の走査を実行するエグゼキュータ.<br>
+	 *
+	 * @return 矩形.条件を満たすピクセルがない場合はnull.<br>
+	 */
+	public static Rectangle scan(int[] pix, int offset, int stride, int w, int h, IntPredicate p, BandExecutor executor) {
+		return scan(new Rows() {
+			@Override
+			public int firstMatch(int y, int from, int to, int[] buf, IntPredicate p) {
+				return BoundingBoxScanner.firstMatch(pix, offset + y * stride, from, to, p);
+			}
+
+			@Override
+			public int lastMatch(int y, int from, int to, int[] buf, IntPredicate p) {
+				return BoundingBoxScanner.lastMatch(pix, offset + y * stride, from, to, p);
+			}
+		}, 0, w, h, p, executor);
+	}
+
+	/**
+	 * 行の範囲から条件を満たすピクセルを探す処理です.
+	 */
+	private interface Rows {
+
+		/**
+		 * 行yの[from, to)で最初に条件を満たすピクセルのX座標を返します.
+		 *
+		 * @param buf 読み込みに使用できる作業用の配列.<br>
+		 *
+		 * @return X座標.ない場合は-1.<br>
+		 */
+		int firstMatch(int y, int from, int to, int[] buf, IntPredicate p);
+
+		/**
+		 * 行yの[from, to)で最後に条件を満たすピクセルのX座標を返します.
+		 *
+		 * @param buf 読み込みに使用できる作業用の配列.<br>
+		 *
+		 * @return X座標.ない場合は-1.<br>
+		 */
+		int lastMatch(int y, int from, int to, int[] buf, IntPredicate p);
+	}
+
+	/**
+	 * 矩形を算出します.
+	 *
+	 * @param rows 行の走査.<br>
+	 * @param bufLength 作業用の配列の長さ.0の場合は作業用の配列を使用しません。<br>
+	 */
+	private static Rectangle scan(Rows rows, int bufLength, int w, int h, IntPredicate p, BandExecutor executor) {
+		PixelBufferPool pool = PixelBufferPool.getDefault();
+		int top = -1;
+		int topX = -1;
+		int bottom;
+		int bottomX;
+		int left;
+		int right;
+		try (PixelBufferPool.Lease<int[]> lease = bufLength == 0 ? null : pool.acquireInts(bufLength)) {
+			int[] buf = lease == null ? null : lease.get();
+			//上端
+			for (int y = 0; y < h && top < 0; y++) {
+				topX = rows.firstMatch(y, 0, w, buf, p);
+				if (topX >= 0) {
+					top = y;
+				}
+			}
+			if (top < 0) {
+				return null;
+			}
+			//下端
+			bottom = top;
+			bottomX = topX;
+			for (int y = h - 1; y > top; y--) {
+				int x = rows.firstMatch(y, 0, w, buf, p);
+				if (x >= 0) {
+					bottom = y;
+					bottomX = x;
+					break;
+				}
+			}
+			//上端と下端の行は、最初に見つかった位置より右側だけが未判定
+			left = Math.min(topX, bottomX);
+			right = Math.max(
+					Math.max(topX, topX + 1 < w ? rows.lastMatch(top, topX + 1, w, buf, p) : -1),
+					Math.max(bottomX, bottomX + 1 < w ? rows.lastMatch(bottom, bottomX + 1, w, buf, p) : -1));
+		}
+		//左右
+		int n = bottom - top - 1;
+		if (n > 0) {
+			AtomicInteger l = new AtomicInteger(left);
+			AtomicInteger r = new AtomicInteger(right);
+			int y0 = top + 1;
+			executor.forEachBand(w, n, (startY, endY) -> {
+				int bl = l.get();
+				int br = r.get();
+				try (PixelBufferPool.Lease<int[]> lease = bufLength == 0 ? null : pool.acquireInts(bufLength)) {
+					int[] buf = lease == null ? null : lease.get();
+					for (int y = y0 + startY; y < y0 + endY; y++) {
+						if (bl > 0) {
+							int x = rows.firstMatch(y, 0, bl, buf, p);
+							if (x >= 0) {
+								bl = x;
+							}
+						}
+						if (br < w - 1) {
+							int x = rows.lastMatch(y, br + 1, w, buf, p);
+							if (x >= 0) {
+								br = x;
+							}
+						}
+					}
+				}
+				int fl = bl;
+				int fr = br;
+				l.accumulateAndGet(fl, Math::min);
+				r.accumulateAndGet(fr, Math::max);
+			});
+			left = l.get();
+			right = r.get();
+		}
+		return new Rectangle(left, top, right - left + 1, bottom - top + 1);
+	}
+
+	private static int firstMatch(int[] pix, int row, int from, int to, IntPredicate p) {
+		for (int x = from; x < to; x++) {
+			if (p.test(pix[row + x])) {
+				return x;
+			}
+		}
+		return -1;
+	}
+
+	private static int lastMatch(int[] pix, int row, int from, int to, IntPredicate p) {
+		for (int x = to - 1; x >= from; x--) {
+			if (p.test(pix[row + x])) {
+				return x;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+/**
+ * パックされたARGB配列に対するチャネル演算のカーネルです.
+ * <br>
+ * 実装はVector API(jdk.incubator.vector)を使用するものと、スカラ演算のみを使用するものがあり、
+ * getInstanceは実行時にモジュールが利用可能かを調べて適切な実装を返します。<br>
+ * Vector APIを使用するには、JVMの起動引数に"--add-modules jdk.incubator.vector"を指定してください。
+ * システムプロパティ"vap.graphics.simd"に"false"を指定すると常にスカラ実装を使用します。<br>
+ * 全ての実装は同じ入力に対して同じ結果を返します。<br>
+ * <br>
+ *
+ * @version 1.0.0 - 2026/10/18_11:02:15<br>
+ * @author Shinacho<br>
+ */
+public interface ChannelKernels {
+
+	/**
+	 * 平均グレースケールで使用する、3で除算するための固定小数点の係数です.
+	 * 0から765の値に対して、(x * DIV3) >>> 16 は x / 3 と一致します。
+	 */
+	static final int DIV3 = 21846;
+	/**
+	 * 加重グレースケールのRED成分の重み(16ビット固定小数点)です.
+	 * 3つの重みの和は65536で、白(255, 255, 255)は255に変換されます。
+	 */
+	static final int WEIGHT_R = 19589;
+	/**
+	 * 加重グレースケールのGREEN成分の重み(16ビット固定小数点)です.
+	 */
+	static final int WEIGHT_G = 38445;
+	/**
+	 * 加重グレースケールのBLUE成分の重み(16ビット固定小数点)です.
+	 */
+	static final int WEIGHT_B = 7502;
+
+	/**
+	 * 実行環境で利用できる最も高速な実装を返します.
+	 *
+	 * @return カーネルの実装.<br>
+	 */
+	public static ChannelKernels getInstance() {
+		return Holder.INSTANCE;
+	}
+
+	/**
+	 * スカラ演算のみを使用する実装を返します.
+	 *
+	 * @return スカラ実装.<br>
+	 */
+	public static ChannelKernels scalar() {
+		return ScalarChannelKernels.INSTANCE;
+	}
+
+	/**
+	 * RGBの平均値によるグレースケールに変換します.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 */
+	public void grayScale(int[] src, int[] dst, int from, int to);
+
+	/**
+	 * 加重平均によるグレースケールに変換します.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 */
+	public void weightedGrayScale(int[] src, int[] dst, int from, int to);
+
+	/**
+	 * アルファ成分以外を反転します.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 */
+	public void reverse(int[] src, int[] dst, int from, int to);
+
+	/**
+	 * アルファ成分に係数を乗算します.結果は0から255に丸められます。
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 * @param mul 係数.<br>
+	 */
+	public void mulAlpha(int[] src, int[] dst, int from, int to, float mul);
+
+	/**
+	 * RGBの平均値がcenterより大きいピクセルを白に、それ以外を黒にします.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 * @param center 閾値.<br>
+	 */
+	public void monochrome(int[] src, int[] dst, int from, int to, int center);
+
+	/**
+	 * mulAlphaで使用する8ビット固定小数点の係数を算出します.
+	 *
+	 * @param mul 係数.<br>
+	 *
+	 * @return 0から65536の固定小数点値.<br>
+	 */
+	static int alphaMultiplier(float mul) {
+		if (!(mul > 0f)) {
+			return 0;
+		}
+		return (int) Math.min(65536f, mul * 256f + 0.5f);
+	}
+
+	/**
+	 * 実装を遅延して選択するためのホルダです.
+	 */
+	static final class Holder {
+
+		private static final ChannelKernels INSTANCE = select();
+
+		private Holder() {
+		}
+
+		private static ChannelKernels select() {
+			if ("false".equalsIgnoreCase(System.getProperty("vap.graphics.simd"))) {
+				return scalar();
+			}
+			if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+				return scalar();
+			}
+			try {
+				return (ChannelKernels) Class.forName("vap.graphics.VectorChannelKernels")
+						.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException ex) {
+				return scalar();
+			}
+		}
+	}
+}
@@ -0,0 +1,345 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 成分ごとの256要素のルックアップテーブルによる色変換です.
+ * <br>
+ * 明るさ、コントラスト、ガンマなどの調整は、画素ごとの浮動小数点演算の代わりに
+ * 事前に計算したテーブルの参照で適用されます。<br>
+ * グレースケールのように複数の成分を参照する変換は、各成分の寄与を表すテーブルの和(輝度)を求め、
+ * 出力の各成分を輝度から引くことで表現します。<br>
+ * andThenで連結したLUTは1つのテーブルに合成されるため、調整をいくつ連結しても画素ごとのコストは変わりません。<br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * <br>
+ *
+ * @version 1.0.0 - 2026/10/18_13:05:52<br>
+ * @author Shinacho<br>
+ */
+public final class ColorLUT {
+
+	private static final int SIZE = 256;
+	private static final ColorLUT IDENTITY = of(IntUnaryOperator.identity());
+	private static final ColorLUT GRAY_SCALE = mono(ChannelKernels.DIV3, ChannelKernels.DIV3, ChannelKernels.DIV3);
+	private static final ColorLUT WEIGHTED_GRAY_SCALE = mono(ChannelKernels.WEIGHT_R, ChannelKernels.WEIGHT_G, ChannelKernels.WEIGHT_B);
+	private static final ColorLUT SEPIA = GRAY_SCALE.andThen(of(IntUnaryOperator.identity(),
+			v -> Math.min(255, (int) (v * 1.12f)),
+			v -> (int) (v * 0.66f),
+			v -> (int) (v * 0.20f)));
+
+	//出力テーブル。輝度を使用する場合は輝度で、そうでない場合は各成分で引く。
+	private final int[] a;
+	private final int[] r;
+	private final int[] g;
+	private final int[] b;
+	//輝度への寄与(16ビット固定小数点)。輝度を使用しない場合はnull。
+	private final int[] lumaR;
+	private final int[] lumaG;
+	private final int[] lumaB;
+	//適用用にシフト済みのテーブル
+	private final int[] sa;
+	private final int[] sr;
+	private final int[] sg;
+	private final int[] sb;
+
+	private ColorLUT(int[] a, int[] r, int[] g, int[] b, int[] lumaR, int[] lumaG, int[] lumaB) {
+		this.a = a;
+		this.r = r;
+		this.g = g;
+		this.b = b;
+		this.lumaR = lumaR;
+		this.lumaG = lumaG;
+		this.lumaB = lumaB;
+		this.sa = new int[SIZE];
+		this.sr = new int[SIZE];
+		this.sg = new int[SIZE];
+		this.sb = new int[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			sa[i] = a[i] << 24;
+			sr[i] = r[i] << 16;
+			sg[i] = g[i] << 8;
+			sb[i] = b[i];
+		}
+	}
+
+	private static int[] table(IntUnaryOperator f) {
+		int[] t = new int[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			t[i] = ARGBColor.clamp(f.applyAsInt(i));
+		}
+		return t;
+	}
+
+	private static int[] identityTable() {
+		return table(IntUnaryOperator.identity());
+	}
+
+	private static ColorLUT mono(int wr, int wg, int wb) {
+		int[] lr = new int[SIZE];
+		int[] lg = new int[SIZE];
+		int[] lb = new int[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			lr[i] = i * wr;
+			lg[i] = i * wg;
+			lb[i] = i * wb;
+		}
+		return new ColorLUT(identityTable(), identityTable(), identityTable(), identityTable(), lr, lg, lb);
+	}
+
+	/**
+	 * 何も変換しないLUTです.
+	 *
+	 * @return 恒等変換のLUT.<br>
+	 */
+	public static ColorLUT identity() {
+		return IDENTITY;
+	}
+
+	/**
+	 * RGBの各成分に同じ関数を適用するLUTを作成します.アルファ成分は変更されません。
+	 *
+	 * @param rgb 0から255の値を変換する関数.結果は0から255に丸められます。<br>
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT of(IntUnaryOperator rgb) {
+		int[] t = table(rgb);
+		return new ColorLUT(identityTable(), t, t, t, null, null, null);
+	}
+
+	/**
+	 * 成分ごとに関数を適用するLUTを作成します.
+	 *
+	 * @param a アルファ成分を変換する関数.<br>
+	 * @param r RED成分を変換する関数.<br>
+	 * @param g GREEN成分を変換する関数.<br>
+	 * @param b BLUE成分を変換する関数.<br>
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT of(IntUnaryOperator a, IntUnaryOperator r, IntUnaryOperator g, IntUnaryOperator b) {
+		return new ColorLUT(table(a), table(r), table(g), table(b), null, null, null);
+	}
+
+	/**
+	 * 明るさを調整するLUTを作成します.
+	 *
+	 * @param delta RGBの各成分に加算する値.<br>
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT brightness(int delta) {
+		return of(v -> v + delta);
+	}
+
+	/**
+	 * コントラストを調整するLUTを作成します.
+	 *
+	 * @param contrast 中央値(128)からの差に乗算する係数.1で変化なし。<br>
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT contrast(float contrast) {
+		return of(v -> Math.round((v - 128) * contrast + 128));
+	}
+
+	/**
+	 * ガンマ補正を行うLUTを作成します.
+	 *
+	 * @param gamma ガンマ値.1で変化なし、1より大きい場合明るくなります。<br>
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT gamma(float gamma) {
+		if (!(gamma > 0f)) {
+			throw new IllegalArgumentException("gamma <= 0 : gamma=[" + gamma + "]");
+		}
+		double inv = 1d / gamma;
+		return of(v -> (int) Math.round(255d * Math.pow(v / 255d, inv)));
+	}
+
+	/**
+	 * RGBを反転するLUTです.
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT invert() {
+		return of(v -> 255 - v);
+	}
+
+	/**
+	 * RGBの平均値によるグレースケールのLUTです.
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT grayScale() {
+		return GRAY_SCALE;
+	}
+
+	/**
+	 * 加重平均によるグレースケールのLUTです.
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT weightedGrayScale() {
+		return WEIGHTED_GRAY_SCALE;
+	}
+
+	/**
+	 * セピア調のLUTです.
+	 *
+	 * @return LUT.<br>
+	 */
+	public static ColorLUT sepia() {
+		return SEPIA;
+	}
+
+	/**
+	 * 輝度を使用するLUTであるかを返します.
+	 *
+	 * @return 出力が輝度から決まる場合true.<br>
+	 */
+	public boolean isMono() {
+		return lumaR != null;
+	}
+
+	private int luma(int rv, int gv, int bv) {
+		return Math.min(255, (lumaR[rv] + lumaG[gv] + lumaB[bv]) >>> 16);
+	}
+
+	/**
+	 * このLUTの後にnextを適用するLUTを作成します.
+	 * 結果は2つのLUTを順に適用した場合と完全に一致します。<br>
+	 *
+	 * @param next 後に適用するLUT.<br>
+	 *
+	 * @return 合成したLUT.<br>
+	 */
+	public ColorLUT andThen(ColorLUT next) {
+		int[] na = new int[SIZE];
+		int[] nr = new int[SIZE];
+		int[] ng = new int[SIZE];
+		int[] nb = new int[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			na[i] = next.a[a[i]];
+		}
+		if (!next.isMono()) {
+			for (int i = 0; i < SIZE; i++) {
+				nr[i] = next.r[r[i]];
+				ng[i] = next.g[g[i]];
+				nb[i] = next.b[b[i]];
+			}
+			return new ColorLUT(na, nr, ng, nb, lumaR, lumaG, lumaB);
+		}
+		if (!isMono()) {
+			int[] lr = new int[SIZE];
+			int[] lg = new int[SIZE];
+			int[] lb = new int[SIZE];
+			for (int i = 0; i < SIZE; i++) {
+				lr[i] = next.lumaR[r[i]];
+				lg[i] = next.lumaG[g[i]];
+				lb[i] = next.lumaB[b[i]];
+			}
+			return new ColorLUT(na, next.r.clone(), next.g.clone(), next.b.clone(), lr, lg, lb);
+		}
+		for (int i = 0; i < SIZE; i++) {
+			int l = next.luma(r[i], g[i], b[i]);
+			nr[i] = next.r[l];
+			ng[i] = next.g[l];
+			nb[i] = next.b[l];
+		}
+		return new ColorLUT(na, nr, ng, nb, lumaR, lumaG, lumaB);
+	}
+
+	/**
+	 * ARGBにこのLUTを適用します.
+	 *
+	 * @param argb ARGB.<br>
+	 *
+	 * @return 変換したARGB.<br>
+	 */
+	public int apply(int argb) {
+		int rv = argb >>> 16 & 0xFF;
+		int gv = argb >>> 8 & 0xFF;
+		int bv = argb & 0xFF;
+		if (lumaR != null) {
+			rv = gv = bv = luma(rv, gv, bv);
+		}
+		return sa[argb >>> 24] | sr[rv] | sg[gv] | sb[bv];
+	}
+
+	/**
+	 * ARGBの配列にこのLUTを適用します.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 */
+	public void apply(int[] src, int[] dst, int from, int to) {
+		final int[] ta = sa, tr = sr, tg = sg, tb = sb;
+		if (lumaR == null) {
+			for (int i = from; i < to; i++) {
+				int v = src[i];
+				dst[i] = ta[v >>> 24] | tr[v >>> 16 & 0xFF] | tg[v >>> 8 & 0xFF] | tb[v & 0xFF];
+			}
+		} else {
+			final int[] lr = lumaR, lg = lumaG, lb = lumaB;
+			for (int i = from; i < to; i++) {
+				int v = src[i];
+				int l = Math.min(255, (lr[v >>> 16 & 0xFF] + lg[v >>> 8 & 0xFF] + lb[v & 0xFF]) >>> 16);
+				dst[i] = ta[v >>> 24] | tr[l] | tg[l] | tb[l];
+			}
+		}
+	}
+
+	/**
+	 * このLUTをテーブルとして返します.
+	 *
+	 * @param channel 0:アルファ、1:RED、2:GREEN、3:BLUE.<br>
+	 *
+	 * @return 出力テーブルのコピー.<br>
+	 */
+	public int[] getTable(int channel) {
+		return switch (channel) {
+			case 0 ->
+				a.clone();
+			case 1 ->
+				r.clone();
+			case 2 ->
+				g.clone();
+			case 3 ->
+				b.clone();
+			default ->
+				throw new IllegalArgumentException("channel : channel=[" + channel + "]");
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "ColorLUT{" + "mono=" + isMono() + '}';
+	}
+}
@@ -0,0 +1,250 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * RGB空間の格子点に出力色を持つ3次元ルックアップテーブルによる色変換です.
+ * <br>
+ * 格子点の間の色は3線形補間で求めます。補間は8ビットの固定小数点で行われます。<br>
+ * カラーグレーディングのように成分どうしが影響しあう変換を、変換の複雑さに関係なく一定のコストで適用できます。<br>
+ * 3次元LUTの前に適用する1次元LUTを持つことができ、ColorLUTとの連結は1つのテーブルに合成されます。<br>
+ * アルファ成分は前段の1次元LUTによってのみ変換されます。<br>
+ * このクラスは不変であり、スレッドセーフです。<br>
+ * <br>
+ *
+ * @version 1.0.0 - 2026/10/18_13:05:52<br>
+ * @author Shinacho<br>
+ */
+public final class ColorLUT3D {
+
+	/**
+	 * 格子の1辺の最小の大きさです.
+	 */
+	public static final int MIN_SIZE = 2;
+	/**
+	 * 格子の1辺の最大の大きさです.
+	 */
+	public static final int MAX_SIZE = 65;
+
+	private final int size;
+	//RGB(アルファ成分は0)の格子。インデックスは(b * size + g) * size + r。
+	private final int[] grid;
+	private final ColorLUT pre;
+	//成分値から格子のインデックスと補間係数(0から256)を引くテーブル
+	private final int[] index;
+	private final int[] frac;
+
+	private ColorLUT3D(int size, int[] grid, ColorLUT pre) {
+		this.size = size;
+		this.grid = grid;
+		this.pre = pre;
+		this.index = new int[256];
+		this.frac = new int[256];
+		for (int v = 0; v < 256; v++) {
+			int p = v * (size - 1) * 256 / 255;
+			int i = Math.min(p >> 8, size - 2);
+			index[v] = i;
+			frac[v] = p - (i << 8);
+		}
+	}
+
+	private static int gridValue(int i, int size) {
+		return (i * 255 + (size - 1) / 2) / (size - 1);
+	}
+
+	/**
+	 * 色の変換関数を格子点でサンプリングして3次元LUTを作成します.
+	 *
+	 * @param size 格子の1辺の大きさ.17や33が一般的です。<br>
+	 * @param f 不透明なRGBを変換する関数.結果のアルファ成分は無視されます。<br>
+	 *
+	 * @return 3次元LUT.<br>
+	 */
+	public static ColorLUT3D of(int size, IntUnaryOperator f) {
+		if (size < MIN_SIZE || size > MAX_SIZE) {
+			throw new IllegalArgumentException("size is out of range : size=[" + size + "]");
+		}
+		int[] grid = new int[size * size * size];
+		for (int b = 0, i = 0; b < size; b++) {
+			for (int g = 0; g < size; g++) {
+				for (int r = 0; r < size; r++, i++) {
+					int argb = ARGBColor.toARGBUnchecked(gridValue(r, size), gridValue(g, size), gridValue(b, size));
+					grid[i] = f.applyAsInt(argb) & ARGBColor.CLEAR_WHITE;
+				}
+			}
+		}
+		return new ColorLUT3D(size, grid, null);
+	}
+
+	/**
+	 * 成分値の配列から3次元LUTを作成します.
+	 * 配列はREDが最も速く変化する順で、size * size * size 個のRGBを持つ必要があります。<br>
+	 *
+	 * @param size 格子の1辺の大きさ.<br>
+	 * @param rgb 格子点のRGB.<br>
+	 *
+	 * @return 3次元LUT.<br>
+	 */
+	public static ColorLUT3D of(int size, int[] rgb) {
+		if (size < MIN_SIZE || size > MAX_SIZE) {
+			throw new IllegalArgumentException("size is out of range : size=[" + size + "]");
+		}
+		if (rgb.length != size * size * size) {
+			throw new IllegalArgumentException("grid length is not size^3 : length=[" + rgb.length + "]");
+		}
+		int[] grid = new int[rgb.length];
+		for (int i = 0; i < grid.length; i++) {
+			grid[i] = rgb[i] & ARGBColor.CLEAR_WHITE;
+		}
+		return new ColorLUT3D(size, grid, null);
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * このLUTの前にbeforeを適用するLUTを作成します.結果は順に適用した場合と一致します。
+	 *
+	 * @param before 前に適用するLUT.<br>
+	 *
+	 * @return 合成したLUT.<br>
+	 */
+	public ColorLUT3D compose(ColorLUT before) {
+		return new ColorLUT3D(size, grid, pre == null ? before : before.andThen(pre));
+	}
+
+	/**
+	 * このLUTの後にnextを適用するLUTを作成します.
+	 * nextは格子点に適用されるため、結果は格子点では一致し、その間は補間されます。<br>
+	 *
+	 * @param next 後に適用するLUT.<br>
+	 *
+	 * @return 合成したLUT.<br>
+	 */
+	public ColorLUT3D andThen(ColorLUT next) {
+		int[] ng = new int[grid.length];
+		for (int i = 0; i < grid.length; i++) {
+			ng[i] = next.apply(grid[i] | ARGBColor.ARGB_ALPHA_MASK) & ARGBColor.CLEAR_WHITE;
+		}
+		//アルファ成分のテーブルは前段に移す
+		ColorLUT alpha = ColorLUT.of(v -> next.apply(v << 24) >>> 24, IntUnaryOperator.identity(),
+				IntUnaryOperator.identity(), IntUnaryOperator.identity());
+		ColorLUT p = pre == null ? alpha : pre.andThen(alpha);
+		return new ColorLUT3D(size, ng, p);
+	}
+
+	/**
+	 * このLUTの後にnextを適用するLUTを作成します.
+	 * nextは格子点で評価されるため、結果は格子点では一致し、その間は補間されます。<br>
+	 *
+	 * @param next 後に適用するLUT.<br>
+	 *
+	 * @return 合成したLUT.<br>
+	 */
+	public ColorLUT3D andThen(ColorLUT3D next) {
+		int[] ng = new int[grid.length];
+		for (int i = 0; i < grid.length; i++) {
+			ng[i] = next.apply(grid[i] | ARGBColor.ARGB_ALPHA_MASK) & ARGBColor.CLEAR_WHITE;
+		}
+		ColorLUT p = pre;
+		if (next.pre != null) {
+			ColorLUT alpha = ColorLUT.of(v -> next.pre.apply(v << 24) >>> 24, IntUnaryOperator.identity(),
+					IntUnaryOperator.identity(), IntUnaryOperator.identity());
+			p = p == null ? alpha : p.andThen(alpha);
+		}
+		return new ColorLUT3D(size, ng, p);
+	}
+
+	private static int lerp(int c0, int c1, int f, int shift) {
+		int v0 = c0 >>> shift & 0xFF;
+		int v1 = c1 >>> shift & 0xFF;
+		return (v0 << 8) + (v1 - v0) * f;
+	}
+
+	/**
+	 * ARGBにこのLUTを適用します.
+	 *
+	 * @param argb ARGB.<br>
+	 *
+	 * @return 変換したARGB.<br>
+	 */
+	public int apply(int argb) {
+		if (pre != null) {
+			argb = pre.apply(argb);
+		}
+		int rv = argb >>> 16 & 0xFF;
+		int gv = argb >>> 8 & 0xFF;
+		int bv = argb & 0xFF;
+		int ri = index[rv], fr = frac[rv];
+		int gi = index[gv], fg = frac[gv];
+		int bi = index[bv], fb = frac[bv];
+		int s = size;
+		int i000 = (bi * s + gi) * s + ri;
+		int i010 = i000 + s;
+		int i001 = i000 + s * s;
+		int i011 = i001 + s;
+		int c000 = grid[i000], c100 = grid[i000 + 1];
+		int c010 = grid[i010], c110 = grid[i010 + 1];
+		int c001 = grid[i001], c101 = grid[i001 + 1];
+		int c011 = grid[i011], c111 = grid[i011 + 1];
+		int res = argb & ARGBColor.ARGB_ALPHA_MASK;
+		for (int shift = 16; shift >= 0; shift -= 8) {
+			//R方向(8ビット精度)
+			int x00 = lerp(c000, c100, fr, shift);
+			int x10 = lerp(c010, c110, fr, shift);
+			int x01 = lerp(c001, c101, fr, shift);
+			int x11 = lerp(c011, c111, fr, shift);
+			//G方向(16ビット精度)
+			int y0 = (x00 << 8) + (x10 - x00) * fg;
+			int y1 = (x01 << 8) + (x11 - x01) * fg;
+			//B方向(24ビット精度)
+			long z = ((long) y0 << 8) + (long) (y1 - y0) * fb;
+			int v = (int) ((z + (1 << 23)) >> 24);
+			res |= ARGBColor.clamp(v) << shift;
+		}
+		return res;
+	}
+
+	/**
+	 * ARGBの配列にこのLUTを適用します.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param from 処理する最初のインデックス.<br>
+	 * @param to 処理する最後のインデックスの次.<br>
+	 */
+	public void apply(int[] src, int[] dst, int from, int to) {
+		for (int i = from; i < to; i++) {
+			dst[i] = apply(src[i]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ColorLUT3D{" + "size=" + size + ", pre=" + pre + '}';
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import static vap.graphics.ARGBColor.div255;
+
+/**
+ * Compositorで使用するPorter-Duffの合成規則です.
+ * <br>
+ * 乗算済みアルファの色をSc(描画する画像)とDc(描画先)、アルファをSaとDaとしたとき、
+ * 結果は Sc * Fa + Dc * Fb です。FaとFbは規則ごとに0、1、Sa、Da、1 - Sa、1 - Daのいずれかです。<br>
+ * 乗算済みの色は8ビットに丸めずに整数のまま計算し、最後に丸める前の結果のアルファで除算するため、
+ * 半透明のピクセルでも色の誤差は丸めの分だけです。<br>
+ * 名前と結果はjava.awt.AlphaCompositeの同名の規則と同じです。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_22:15:26<br>
+ * @author Shinacho<br>
+ */
+public enum CompositeRule implements Compositor.PixelOperator {
+
+	/**
+	 * 描画先を透明にします.Fa = 0, Fb = 0.
+	 */
+	CLEAR(Factor.ZERO, Factor.ZERO),
+	/**
+	 * 描画先を描画する画像で置き換えます.Fa = 1, Fb = 0.
+	 */
+	SRC(Factor.ONE, Factor.ZERO),
+	/**
+	 * 描画先をそのまま残します.Fa = 0, Fb = 1.
+	 */
+	DST(Factor.ZERO, Factor.ONE),
+	/**
+	 * 描画先の上に描画します.通常の描画です。Fa = 1, Fb = 1 - Sa.
+	 */
+	SRC_OVER(Factor.ONE, Factor.INV_SRC_ALPHA),
+	/**
+	 * 描画先の下に描画します.Fa = 1 - Da, Fb = 1.
+	 */
+	DST_OVER(Factor.INV_DST_ALPHA, Factor.ONE),
+	/**
+	 * 描画先の不透明な部分にだけ描画する画像を残します.Fa = Da, Fb = 0.
+	 */
+	SRC_IN(Factor.DST_ALPHA, Factor.ZERO),
+	/**
+	 * 描画する画像の不透明な部分にだけ描画先を残します.マスクとして使用できます。Fa = 0, Fb = Sa.
+	 */
+	DST_IN(Factor.ZERO, Factor.SRC_ALPHA),
+	/**
+	 * 描画先の透明な部分にだけ描画する画像を残します.Fa = 1 - Da, Fb = 0.
+	 */
+	SRC_OUT(Factor.INV_DST_ALPHA, Factor.ZERO),
+	/**
+	 * 描画する画像の透明な部分にだけ描画先を残します.描画する画像の形に切り抜きます。Fa = 0, Fb = 1 - Sa.
+	 */
+	DST_OUT(Factor.ZERO, Factor.INV_SRC_ALPHA),
+	/**
+	 * 描画先の不透明な部分にだけ描画先の上に描画します.描画先のアルファは変わりません。Fa = Da, Fb = 1 - Sa.
+	 */
+	SRC_ATOP(Factor.DST_ALPHA, Factor.INV_SRC_ALPHA),
+	/**
+	 * 描画する画像の不透明な部分にだけ、描画先を描画する画像の上に重ねます.Fa = 1 - Da, Fb = Sa.
+	 */
+	DST_ATOP(Factor.INV_DST_ALPHA, Factor.SRC_ALPHA),
+	/**
+	 * 重なっていない部分だけを残します.Fa = 1 - Da, Fb = 1 - Sa.
+	 */
+	XOR(Factor.INV_DST_ALPHA, Factor.INV_SRC_ALPHA);
+
+	/**
+	 * 合成の係数です.
+	 */
+	private enum Factor {
+		ZERO,
+		ONE,
+		SRC_ALPHA,
+		DST_ALPHA,
+		INV_SRC_ALPHA,
+		INV_DST_ALPHA;
+
+		/**
+		 * 係数を0から255の整数で返します.
+		 */
+		int value(int sa, int da) {
+			return switch (this) {
+				case ZERO ->
+					0;
+				case ONE ->
+					255;
+				case SRC_ALPHA ->
+					sa;
+				case DST_ALPHA ->
+					da;
+				case INV_SRC_ALPHA ->
+					255 - sa;
+				case INV_DST_ALPHA ->
+					255 - da;
+			};
+		}
+	}
+
+	private final Factor fa;
+	private final Factor fb;
+
+	private CompositeRule(Factor fa, Factor fb) {
+		this.fa = fa;
+		this.fb = fb;
+	}
+
+	@Override
+	public int apply(int s, int d) {
+		int sa = s >>> 24;
+		int da = d >>> 24;
+		int fs = fa.value(sa, da);
+		int fd = fb.value(sa, da);
+		//各項の重み.重みの和は丸める前のアルファ(255 * 255倍)で、色の積和は255 * 255 * 255を超えない
+		int ws = sa * fs;
+		int wd = da * fd;
+		int div = ws + wd;
+		if (div == 0) {
+			return 0;
+		}
+		long rcp = Compositor.reciprocal(div);
+		return div255(div) << 24
+				| Compositor.quotient((s >>> 16 & 0xFF) * ws + (d >>> 16 & 0xFF) * wd, div, rcp) << 16
+				| Compositor.quotient((s >>> 8 & 0xFF) * ws + (d >>> 8 & 0xFF) * wd, div, rcp) << 8
+				| Compositor.quotient((s & 0xFF) * ws + (d & 0xFF) * wd, div, rcp);
+	}
+}
@@ -0,0 +1,251 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * ARGB配列と画像に対する合成のエンジンです.
+ * <br>
+ * Porter-Duffの合成規則(CompositeRule)とブレンドモード(BlendMode)を、乗算済みアルファの式に従って整数演算で処理します。
+ * 浮動小数点数を使用しないため、結果は実行環境に依存しません。<br>
+ * 完全に透明なピクセルと、通常の描画での完全に不透明なピクセルは、合成の計算を行わずに処理します。<br>
+ * 処理はBandExecutorによって行のバンドごとに並列に実行されます。<br>
+ * このクラスのインスタンスは状態を持たないため、スレッドセーフです。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_22:15:26<br>
+ * @author Shinacho<br>
+ */
+public final class Compositor {
+
+	/**
+	 * 2つのピクセルを合成する処理です.
+	 * 入出力は乗算済みではないARGBです。乗算済みの形式への変換は、精度を保つために各処理の内部で行います。<br>
+	 */
+	@FunctionalInterface
+	public interface PixelOperator {
+
+		/**
+		 * 2つのピクセルを合成します.
+		 *
+		 * @param s 描画するピクセル.不透明度はアルファに乗算済みです。<br>
+		 * @param d 描画先のピクセル.<br>
+		 *
+		 * @return 合成結果.<br>
+		 */
+		int apply(int s, int d);
+	}
+
+	/**
+	 * 逆数による除算の精度(ビット)です.
+	 */
+	private static final int RECIPROCAL_SHIFT = 40;
+	/**
+	 * 結果が完全に不透明な場合の除数(255 * 255)の逆数です.
+	 */
+	private static final long RECIPROCAL_OPAQUE = reciprocal0(255 * 255);
+
+	private final BandExecutor executor;
+
+	/**
+	 * 既定のエグゼキュータを使用するインスタンスを作成します.
+	 */
+	public Compositor() {
+		this(BandExecutor.getDefault());
+	}
+
+	/**
+	 * 指定されたエグゼキュータを使用するインスタンスを作成します.
+	 *
+	 * @param executor エグゼキュータ.<br>
+	 */
+	public Compositor(BandExecutor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * 同じ大きさのARGB配列を合成します.
+	 *
+	 * @param src 描画する画像.ARGB.<br>
+	 * @param dst 描画先.ARGB.結果で上書きされます。<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param op 合成の処理.<br>
+	 */
+	public void composite(int[] src, int[] dst, int w, int h, PixelOperator op) {
+		composite(src, 0, w, dst, 0, w, w, h, op, 255);
+	}
+
+	/**
+	 * ARGB配列の矩形を合成します.
+	 * 位置(x, y)のピクセルは、srcではsrc[srcOffset + y * srcStride + x]、dstではdst[dstOffset + y * dstStride + x]です。<br>
+	 *
+	 * @param src 描画する画像.ARGB.<br>
+	 * @param srcOffset srcの先頭のインデックス.<br>
+	 * @param srcStride srcの1行の要素数.<br>
+	 * @param dst 描画先.ARGB.結果で上書きされます。<br>
+	 * @param dstOffset dstの先頭のインデックス.<br>
+	 * @param dstStride dstの1行の要素数.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param op 合成の処理.<br>
+	 * @param opacity 描画する画像の不透明度.0から255.<br>
+	 *
+	 * @throws IllegalArgumentException 配列が小さすぎる場合、または不透明度が範囲外の場合.<br>
+	 */
+	public void composite(int[] src, int srcOffset, int srcStride, int[] dst, int dstOffset, int dstStride,
+			int w, int h, PixelOperator op, int opacity) throws IllegalArgumentException {
+		if (opacity < 0 || opacity > 255) {
+			throw new IllegalArgumentException("opacity is out of range : opacity=[" + opacity + "]");
+		}
+		if (w <= 0 || h <= 0) {
+			return;
+		}
+		if (srcOffset < 0 || srcStride < w || src.length < srcOffset + (long) (h - 1) * srcStride + w
+				|| dstOffset < 0 || dstStride < w || dst.length < dstOffset + (long) (h - 1) * dstStride + w) {
+			throw new IllegalArgumentException("buffer is too small : size=[" + w + "x" + h + "]");
+		}
+		executor.forEachBand(w, h, (startY, endY)
+				-> compositeRows(src, srcOffset, srcStride, dst, dstOffset, dstStride, w, startY, endY, op, opacity));
+	}
+
+	/**
+	 * 画像を別の画像の指定された位置に合成します.
+	 * 描画先の外にはみ出す部分は無視されます。<br>
+	 *
+	 * @param src 描画する画像.<br>
+	 * @param dst 描画先.<br>
+	 * @param x 描画先でのX座標.<br>
+	 * @param y 描画先でのY座標.<br>
+	 * @param op 合成の処理.<br>
+	 * @param opacity 描画する画像の不透明度.0から255.<br>
+	 */
+	public void composite(BufferedImage src, BufferedImage dst, int x, int y, PixelOperator op, int opacity) {
+		int sx = Math.max(0, -x);
+		int sy = Math.max(0, -y);
+		int dx = Math.max(0, x);
+		int dy = Math.max(0, y);
+		int w = Math.min(src.getWidth() - sx, dst.getWidth() - dx);
+		int h = Math.min(src.getHeight() - sy, dst.getHeight() - dy);
+		if (w <= 0 || h <= 0) {
+			return;
+		}
+		//重なる範囲だけをPixelBufferPoolから借りた配列に読み込む
+		PixelBufferPool pool = PixelBufferPool.getDefault();
+		try (PixelBufferPool.Lease<int[]> srcLease = pool.acquireInts(w * h);
+				PixelBufferPool.Lease<int[]> dstLease = pool.acquireInts(w * h)) {
+			int[] s = ImageUtil.getPixels(src, sx, sy, w, h, srcLease.get(), 0, w);
+			int[] d = ImageUtil.getPixels(dst, dx, dy, w, h, dstLease.get(), 0, w);
+			composite(s, 0, w, d, 0, w, w, h, op, opacity);
+			ImageUtil.setPixels(dst, dx, dy, w, h, d, 0, w);
+		}
+	}
+
+	private static void compositeRows(int[] src, int srcOffset, int srcStride, int[] dst, int dstOffset, int dstStride,
+			int w, int startY, int endY, PixelOperator op, int opacity) {
+		//透明なピクセルを描画しても描画先が変わらない処理
+		boolean skipTransparent = op instanceof BlendMode || op == CompositeRule.SRC_OVER || op == CompositeRule.SRC_ATOP;
+		//不透明なピクセルを描画すると描画する画像で置き換わる処理
+		boolean copyOpaque = op == BlendMode.NORMAL || op == CompositeRule.SRC_OVER || op == CompositeRule.SRC;
+		boolean over = op == BlendMode.NORMAL || op == CompositeRule.SRC_OVER;
+		copyOpaque &= opacity == 255;
+		for (int y = startY; y < endY; y++) {
+			int so = srcOffset + y * srcStride;
+			int dof = dstOffset + y * dstStride;
+			int x = 0;
+			while (x < w) {
+				int sv = src[so + x];
+				int sa = sv >>> 24;
+				//透明なピクセルと不透明なピクセルは連続する範囲ごとにまとめて処理する
+				if (sa == 0 && skipTransparent) {
+					do {
+						x++;
+					} while (x < w && src[so + x] >>> 24 == 0);
+					continue;
+				}
+				if (sa == 255 && copyOpaque) {
+					int start = x;
+					do {
+						x++;
+					} while (x < w && src[so + x] >>> 24 == 255);
+					System.arraycopy(src, so + start, dst, dof + start, x - start);
+					continue;
+				}
+				if (opacity != 255) {
+					sv = ARGBColor.withAlpha(sv, ARGBColor.div255(sa * opacity));
+				}
+				int dv = dst[dof + x];
+				dst[dof + x] = over && dv >>> 24 == 255 ? overOpaque(sv, dv) : op.apply(sv, dv);
+				x++;
+			}
+		}
+	}
+
+	/**
+	 * 不透明なピクセルの上に通常の描画をします.
+	 * 結果は不透明になるため、除算は255での除算だけになります。<br>
+	 */
+	private static int overOpaque(int s, int d) {
+		int sa = s >>> 24;
+		int ia = 255 - sa;
+		return 0xFF000000
+				| ARGBColor.div255((s >>> 16 & 0xFF) * sa + (d >>> 16 & 0xFF) * ia) << 16
+				| ARGBColor.div255((s >>> 8 & 0xFF) * sa + (d >>> 8 & 0xFF) * ia) << 8
+				| ARGBColor.div255((s & 0xFF) * sa + (d & 0xFF) * ia);
+	}
+
+	private static long reciprocal0(int div) {
+		return ((1L << RECIPROCAL_SHIFT) + div - 1) / div;
+	}
+
+	/**
+	 * 除数の逆数を返します.
+	 * 1ピクセルの3つの色を同じ値で除算する場合に、除算を1回にするために使用します。<br>
+	 *
+	 * @param div 1から255 * 255の除数.<br>
+	 *
+	 * @return quotientに渡す逆数.<br>
+	 */
+	static long reciprocal(int div) {
+		return div == 255 * 255 ? RECIPROCAL_OPAQUE : reciprocal0(div);
+	}
+
+	/**
+	 * 逆数を使って除算し、0から255の値を返します.
+	 *
+	 * @param v 255 * 255 * 255以下の被除数.<br>
+	 * @param div 除数.<br>
+	 * @param reciprocal divの逆数.<br>
+	 *
+	 * @return v / div を四捨五入した値.<br>
+	 */
+	static int quotient(int v, int div, long reciprocal) {
+		return Math.min(255, (int) ((v + (div >> 1)) * reciprocal >>> RECIPROCAL_SHIFT));
+	}
+
+	@Override
+	public String toString() {
+		return "Compositor{" + "executor=" + executor + '}';
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * 画像のピクセルデータから64ビットのハッシュ値を算出します.
+ * <br>
+ * ハッシュは暗号学的なものではなく、重複の検出やキャッシュのキーとして使用するためのものです。<br>
+ * 画像は幅から決まる一定の行数のチャンクに分割され、チャンクごとのハッシュを順に合成します。
+ * チャンクの分割は並列度に依存しないため、逐次でも並列でも同じ値になります。<br>
+ * 同じ大きさで同じARGBを持つ画像は、画像の形式や部分画像であるかに関係なく同じハッシュ値になります。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_15:48:09<br>
+ * @author Shinacho<br>
+ */
+public final class ContentHash {
+
+	private static final long P1 = 0x9E3779B185EBCA87L;
+	private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+	private static final long P3 = 0x165667B19E3779F9L;
+	/**
+	 * 1チャンクあたりのピクセル数の目安です.
+	 */
+	private static final int CHUNK_PIXELS = 64 * 1024;
+
+	/**
+	 * ユーティリティクラスのためインスタンス化できません.
+	 */
+	private ContentHash() {
+	}
+
+	/**
+	 * 画像のハッシュ値を算出します.
+	 *
+	 * @param image 画像.<br>
+	 *
+	 * @return ハッシュ値.<br>
+	 */
+	public static long hash(BufferedImage image) {
+		int w = image.getWidth();
+		int h = image.getHeight();
+		int rows = chunkRows(w);
+		long[] chunkHash = new long[(h + rows - 1) / rows];
+		//チャンクごとにPixelBufferPoolから借りた配列へ読み込み、画像全体の複製は作成しない
+		BandExecutor.getDefault().forEachBand(w, h, rows, (startY, endY) -> {
+			try (PixelBufferPool.Lease<int[]> lease = PixelBufferPool.getDefault().acquireInts(Math.min(rows, h) * w)) {
+				int[] buf = lease.get();
+				for (int y = startY; y < endY; y += rows) {
+					int n = Math.min(endY, y + rows) - y;
+					ImageUtil.getPixels(image, 0, y, w, n, buf, 0, w);
+					chunkHash[y / rows] = hashRows(buf, 0, w, w, 0, n);
+				}
+			}
+		});
+		return combine(w, h, chunkHash);
+	}
+
+	/**
+	 * ピクセル配列のハッシュ値を算出します.
+	 *
+	 * @param pix ピクセル配列.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 *
+	 * @return ハッシュ値.<br>
+	 */
+	public static long hash(int[] pix, int w, int h) {
+		return hash(pix, 0, w, w, h, BandExecutor.getDefault());
+	}
+
+	/**
+	 * ピクセル配列のハッシュ値を算出します.
+	 *
+	 * @param pix ピクセル配列.<br>
+	 * @param offset 左上のピクセルのインデックス.<br>
+	 * @param stride 行の間隔.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param executor チャンクを処理するエグゼキュータ.<br>
+	 *
+	 * @return ハッシュ値.<br>
+	 */
+	public static long hash(int[] pix, int offset, int stride, int w, int h, BandExecutor executor) {
+		int rows = chunkRows(w);
+		long[] chunkHash = new long[(h + rows - 1) / rows];
+		executor.forEachBand(w, h, rows, (startY, endY) -> {
+			for (int y = startY; y < endY; y += rows) {
+				chunkHash[y / rows] = hashRows(pix, offset, stride, w, y, Math.min(endY, y + rows));
+			}
+		});
+		return combine(w, h, chunkHash);
+	}
+
+	private static int chunkRows(int w) {
+		return Math.max(1, CHUNK_PIXELS / Math.max(1, w));
+	}
+
+	private static long combine(int w, int h, long[] chunkHash) {
+		long res = mix((long) w << 32 | h & 0xFFFFFFFFL);
+		for (long c : chunkHash) {
+			res = mix(res ^ c) * P1 + P3;
+		}
+		return mix(res);
+	}
+
+	private static long hashRows(int[] pix, int offset, int stride, int w, int startY, int endY) {
+		//4本の独立した累積値で命令レベルの並列性を確保する
+		long a0 = P1 + P2, a1 = P2, a2 = 0, a3 = -P1;
+		for (int y = startY; y < endY; y++) {
+			int i = offset + y * stride;
+			int end = i + w;
+			for (; i + 4 <= end; i += 4) {
+				a0 = round(a0, pix[i]);
+				a1 = round(a1, pix[i + 1]);
+				a2 = round(a2, pix[i + 2]);
+				a3 = round(a3, pix[i + 3]);
+			}
+			for (; i < end; i++) {
+				a0 = round(a0, pix[i]);
+				a0 = Long.rotateLeft(a0, 7);
+			}
+		}
+		long h = Long.rotateLeft(a0, 1) + Long.rotateLeft(a1, 7) + Long.rotateLeft(a2, 12) + Long.rotateLeft(a3, 18);
+		return mix(h ^ (long) (endY - startY) * P3);
+	}
+
+	private static long round(long acc, int v) {
+		acc += (v & 0xFFFFFFFFL) * P2;
+		acc = Long.rotateLeft(acc, 31);
+		return acc * P1;
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= P2;
+		h ^= h >>> 29;
+		h *= P3;
+		h ^= h >>> 32;
+		return h;
+	}
+}
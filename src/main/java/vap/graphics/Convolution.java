@@ -0,0 +1,448 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.Arrays;
+
+/**
+ * ARGB配列に対する畳み込みとぼかしのエンジンです.
+ * <br>
+ * ボックスぼかしは移動和で計算するため、1ピクセルあたりのコストは半径に依存しません。
+ * ガウスぼかしは3回のボックスぼかしで近似します。<br>
+ * ぼかしは乗算済みアルファの空間で行うため、透明な部分との境界が暗くなりません。<br>
+ * 水平方向の処理は行のバンドごとに、垂直方向の処理は列の帯ごとに並列に実行されます。<br>
+ * プールを指定せずに作成したインスタンスは作業用の配列を保持して再利用するため、
+ * 同じ大きさの画像を繰り返し処理する場合は同じインスタンスを使用してください。このインスタンスはスレッドセーフではありません。
+ * プールを指定して作成したインスタンスは、作業用の配列を呼び出しごとにプールから借りて返却するため、
+ * 配列を保持せず、複数のスレッドから同時に使用できます。<br>
+ * <br>
+ *
+ * @version 1.0.0 - 2026/10/18_14:10:03<br>
+ * @author Shinacho<br>
+ */
+public final class Convolution {
+
+	/**
+	 * 垂直方向の処理で1つのタスクが担当する列の数です.
+	 */
+	private static final int COLUMN_STRIP = 64;
+	/**
+	 * 固定小数点のカーネルの精度(ビット)です.
+	 */
+	private static final int KERNEL_SHIFT = 12;
+	/**
+	 * 垂直方向の移動和を保持する作業用配列です.
+	 */
+	private static final ThreadLocal<int[]> COLUMN_SUMS = ThreadLocal.withInitial(() -> new int[COLUMN_STRIP * 4]);
+
+	private final BandExecutor executor;
+	/**
+	 * 作業用の配列を借りるプールです.nullの場合はインスタンスが配列を保持します。
+	 */
+	private final PixelBufferPool pool;
+	private int[] work1;
+	private int[] work2;
+
+	/**
+	 * 既定のエグゼキュータを使用するインスタンスを作成します.
+	 */
+	public Convolution() {
+		this(BandExecutor.getDefault());
+	}
+
+	/**
+	 * 指定されたエグゼキュータを使用するインスタンスを作成します.
+	 *
+	 * @param executor エグゼキュータ.<br>
+	 */
+	public Convolution(BandExecutor executor) {
+		this(executor, null);
+	}
+
+	/**
+	 * 作業用の配列をプールから借りるインスタンスを作成します.
+	 *
+	 * @param executor エグゼキュータ.<br>
+	 * @param pool 作業用の配列を借りるプール.nullの場合はインスタンスが配列を保持します。<br>
+	 */
+	public Convolution(BandExecutor executor, PixelBufferPool pool) {
+		this.executor = executor;
+		this.pool = pool;
+	}
+
+	private PixelBufferPool.Lease<int[]> lease(int n) {
+		return pool == null ? null : pool.acquireInts(n);
+	}
+
+	private int[] work1(int n, PixelBufferPool.Lease<int[]> lease) {
+		if (lease != null) {
+			return lease.get();
+		}
+		if (work1 == null || work1.length < n) {
+			work1 = new int[n];
+		}
+		return work1;
+	}
+
+	private int[] work2(int n, PixelBufferPool.Lease<int[]> lease) {
+		if (lease != null) {
+			return lease.get();
+		}
+		if (work2 == null || work2.length < n) {
+			work2 = new int[n];
+		}
+		return work2;
+	}
+
+	private static void check(int[] src, int[] dst, int w, int h) {
+		if (w <= 0 || h <= 0) {
+			throw new IllegalArgumentException("size is 0 : size=[" + w + "x" + h + "]");
+		}
+		if (src.length < w * h || dst.length < w * h) {
+			throw new IllegalArgumentException("buffer is too small : size=[" + w + "x" + h + "]");
+		}
+	}
+
+	/**
+	 * ボックスぼかしを適用します.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param radius 半径.0の場合はコピーになります。<br>
+	 * @param edge 端の扱い.<br>
+	 */
+	public void boxBlur(int[] src, int[] dst, int w, int h, int radius, EdgeMode edge) {
+		blur(src, dst, w, h, new int[]{radius}, edge);
+	}
+
+	/**
+	 * ガウスぼかしを適用します.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param sigma 標準偏差.<br>
+	 * @param edge 端の扱い.<br>
+	 */
+	public void gaussianBlur(int[] src, int[] dst, int w, int h, float sigma, EdgeMode edge) {
+		blur(src, dst, w, h, boxRadii(sigma, 3), edge);
+	}
+
+	/**
+	 * 指定された標準偏差のガウスぼかしをn回のボックスぼかしで近似する場合の半径を算出します.
+	 *
+	 * @param sigma 標準偏差.<br>
+	 * @param n ボックスぼかしの回数.<br>
+	 *
+	 * @return 各回の半径.<br>
+	 */
+	static int[] boxRadii(float sigma, int n) {
+		if (sigma < 0f) {
+			throw new IllegalArgumentException("sigma < 0 : sigma=[" + sigma + "]");
+		}
+		double s2 = 12d * sigma * sigma;
+		int wl = (int) Math.floor(Math.sqrt(s2 / n + 1));
+		if (wl % 2 == 0) {
+			wl--;
+		}
+		int m = (int) Math.round((s2 - n * wl * wl - 4d * n * wl - 3d * n) / (-4d * wl - 4));
+		int[] radii = new int[n];
+		for (int i = 0; i < n; i++) {
+			radii[i] = ((i < m ? wl : wl + 2) - 1) / 2;
+		}
+		return radii;
+	}
+
+	private void blur(int[] src, int[] dst, int w, int h, int[] radii, EdgeMode edge) {
+		check(src, dst, w, h);
+		for (int r : radii) {
+			if (r < 0) {
+				throw new IllegalArgumentException("radius < 0 : radius=[" + r + "]");
+			}
+		}
+		if (Arrays.stream(radii).allMatch(r -> r == 0)) {
+			if (src != dst) {
+				System.arraycopy(src, 0, dst, 0, w * h);
+			}
+			return;
+		}
+		int n = w * h;
+		try (PixelBufferPool.Lease<int[]> l1 = lease(n); PixelBufferPool.Lease<int[]> l2 = lease(n)) {
+			int[] a = work1(n, l1);
+			int[] b = work2(n, l2);
+			executor.forEachBand(w, h, (startY, endY) -> {
+				for (int i = startY * w, end = endY * w; i < end; i++) {
+					a[i] = ARGBColor.premultiply(src[i]);
+				}
+			});
+			for (int r : radii) {
+				if (r == 0) {
+					continue;
+				}
+				executor.forEachBand(w, h, (startY, endY) -> blurRows(a, b, w, h, startY, endY, r, edge));
+				executor.forEachBand(h, w, COLUMN_STRIP, (startX, endX) -> blurColumns(b, a, w, h, startX, endX, r, edge));
+			}
+			executor.forEachBand(w, h, (startY, endY) -> {
+				for (int i = startY * w, end = endY * w; i < end; i++) {
+					dst[i] = ARGBColor.unpremultiply(a[i]);
+				}
+			});
+		}
+	}
+
+	private static long reciprocal(int r) {
+		return ((1L << 24) + r) / (2 * r + 1);
+	}
+
+	private static int average(int sa, int sr, int sg, int sb, long mul) {
+		final long half = 1L << 23;
+		return (int) ((sa * mul + half) >>> 24) << 24
+				| (int) ((sr * mul + half) >>> 24) << 16
+				| (int) ((sg * mul + half) >>> 24) << 8
+				| (int) ((sb * mul + half) >>> 24);
+	}
+
+	private static void blurRows(int[] src, int[] dst, int w, int h, int startY, int endY, int r, EdgeMode edge) {
+		long mul = reciprocal(r);
+		for (int y = startY; y < endY; y++) {
+			int row = y * w;
+			int sa = 0, sr = 0, sg = 0, sb = 0;
+			for (int k = -r; k <= r; k++) {
+				int x = edge.map(k, w);
+				if (x >= 0) {
+					int p = src[row + x];
+					sa += p >>> 24;
+					sr += p >>> 16 & 0xFF;
+					sg += p >>> 8 & 0xFF;
+					sb += p & 0xFF;
+				}
+			}
+			for (int x = 0; x < w; x++) {
+				dst[row + x] = average(sa, sr, sg, sb, mul);
+				int in = edge.map(x + r + 1, w);
+				if (in >= 0) {
+					int p = src[row + in];
+					sa += p >>> 24;
+					sr += p >>> 16 & 0xFF;
+					sg += p >>> 8 & 0xFF;
+					sb += p & 0xFF;
+				}
+				int out = edge.map(x - r, w);
+				if (out >= 0) {
+					int p = src[row + out];
+					sa -= p >>> 24;
+					sr -= p >>> 16 & 0xFF;
+					sg -= p >>> 8 & 0xFF;
+					sb -= p & 0xFF;
+				}
+			}
+		}
+	}
+
+	private static void blurColumns(int[] src, int[] dst, int w, int h, int startX, int endX, int r, EdgeMode edge) {
+		long mul = reciprocal(r);
+		int cols = endX - startX;
+		int[] sums = COLUMN_SUMS.get();
+		if (sums.length < cols * 4) {
+			sums = new int[cols * 4];
+			COLUMN_SUMS.set(sums);
+		}
+		Arrays.fill(sums, 0, cols * 4, 0);
+		for (int k = -r; k <= r; k++) {
+			int y = edge.map(k, h);
+			if (y >= 0) {
+				addRow(src, y * w + startX, sums, cols, 1);
+			}
+		}
+		for (int y = 0; y < h; y++) {
+			int row = y * w + startX;
+			for (int c = 0, s = 0; c < cols; c++, s += 4) {
+				dst[row + c] = average(sums[s], sums[s + 1], sums[s + 2], sums[s + 3], mul);
+			}
+			int in = edge.map(y + r + 1, h);
+			if (in >= 0) {
+				addRow(src, in * w + startX, sums, cols, 1);
+			}
+			int out = edge.map(y - r, h);
+			if (out >= 0) {
+				addRow(src, out * w + startX, sums, cols, -1);
+			}
+		}
+	}
+
+	private static void addRow(int[] src, int offset, int[] sums, int cols, int sign) {
+		for (int c = 0, s = 0; c < cols; c++, s += 4) {
+			int p = src[offset + c];
+			sums[s] += sign * (p >>> 24);
+			sums[s + 1] += sign * (p >>> 16 & 0xFF);
+			sums[s + 2] += sign * (p >>> 8 & 0xFF);
+			sums[s + 3] += sign * (p & 0xFF);
+		}
+	}
+
+	/**
+	 * 正方形のカーネルでRGB成分を畳み込みます.アルファ成分は中央のピクセルの値が使用されます。
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列は指定できません。<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param kernel カーネル.行優先でsize * size個の係数を持ちます。<br>
+	 * @param size カーネルの1辺の大きさ.奇数である必要があります。<br>
+	 * @param edge 端の扱い.<br>
+	 */
+	public void convolve(int[] src, int[] dst, int w, int h, float[] kernel, int size, EdgeMode edge) {
+		check(src, dst, w, h);
+		if (src == dst) {
+			throw new IllegalArgumentException("src and dst are same array");
+		}
+		if (size < 1 || size % 2 == 0 || kernel.length != size * size) {
+			throw new IllegalArgumentException("kernel size is illegal : size=[" + size + "], length=[" + kernel.length + "]");
+		}
+		int kr = size / 2;
+		int[] weights = new int[kernel.length];
+		for (int i = 0; i < kernel.length; i++) {
+			weights[i] = Math.round(kernel[i] * (1 << KERNEL_SHIFT));
+		}
+		int[] xmap = indexMap(w, kr, edge);
+		int[] ymap = indexMap(h, kr, edge);
+		int half = 1 << (KERNEL_SHIFT - 1);
+		executor.forEachBand(w, h, (startY, endY) -> {
+			for (int y = startY; y < endY; y++) {
+				for (int x = 0; x < w; x++) {
+					int sr = half, sg = half, sb = half;
+					for (int ky = 0, k = 0; ky < size; ky++) {
+						int yy = ymap[y + ky];
+						for (int kx = 0; kx < size; kx++, k++) {
+							int xx = xmap[x + kx];
+							if (yy < 0 || xx < 0) {
+								continue;
+							}
+							int p = src[yy * w + xx];
+							int wt = weights[k];
+							sr += (p >>> 16 & 0xFF) * wt;
+							sg += (p >>> 8 & 0xFF) * wt;
+							sb += (p & 0xFF) * wt;
+						}
+					}
+					int c = src[y * w + x];
+					dst[y * w + x] = c & ARGBColor.ARGB_ALPHA_MASK
+							| ARGBColor.clamp(sr >> KERNEL_SHIFT) << 16
+							| ARGBColor.clamp(sg >> KERNEL_SHIFT) << 8
+							| ARGBColor.clamp(sb >> KERNEL_SHIFT);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 位置iから半径rの範囲を参照する場合の座標の対応表を作成します.
+	 * 座標 i + k (-r &lt;= k &lt;= r) の画像内の座標は map[i + r + k] です。
+	 */
+	private static int[] indexMap(int n, int r, EdgeMode edge) {
+		int[] map = new int[n + 2 * r];
+		for (int i = 0; i < map.length; i++) {
+			map[i] = edge.map(i - r, n);
+		}
+		return map;
+	}
+
+	/**
+	 * 3x3のカーネルで鮮鋭化します.
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列は指定できません。<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param amount 強さ.0で変化なし。<br>
+	 * @param edge 端の扱い.<br>
+	 */
+	public void sharpen(int[] src, int[] dst, int w, int h, float amount, EdgeMode edge) {
+		float n = -amount;
+		float c = 1 + 4 * amount;
+		convolve(src, dst, w, h, new float[]{
+			0, n, 0,
+			n, c, n,
+			0, n, 0
+		}, 3, edge);
+	}
+
+	/**
+	 * Sobelフィルタでエッジを検出します.
+	 * 出力は勾配の大きさを明度とする不透明なグレースケールです。勾配は乗算済みアルファの輝度から算出するため、
+	 * 透明な部分との境界もエッジとして検出されます。<br>
+	 *
+	 * @param src 入力.<br>
+	 * @param dst 出力.srcと同じ配列を指定できます。<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param edge 端の扱い.<br>
+	 */
+	public void sobel(int[] src, int[] dst, int w, int h, EdgeMode edge) {
+		check(src, dst, w, h);
+		try (PixelBufferPool.Lease<int[]> l = lease(w * h)) {
+			sobel(src, dst, w, h, edge, work1(w * h, l));
+		}
+	}
+
+	private void sobel(int[] src, int[] dst, int w, int h, EdgeMode edge, int[] luma) {
+		executor.forEachBand(w, h, (startY, endY) -> {
+			for (int i = startY * w, end = endY * w; i < end; i++) {
+				int p = ARGBColor.premultiply(src[i]);
+				luma[i] = ((p >>> 16 & 0xFF) * ChannelKernels.WEIGHT_R
+						+ (p >>> 8 & 0xFF) * ChannelKernels.WEIGHT_G
+						+ (p & 0xFF) * ChannelKernels.WEIGHT_B) >>> 16;
+			}
+		});
+		int[] xmap = indexMap(w, 1, edge);
+		int[] ymap = indexMap(h, 1, edge);
+		executor.forEachBand(w, h, (startY, endY) -> {
+			for (int y = startY; y < endY; y++) {
+				int y0 = ymap[y], y1 = ymap[y + 1], y2 = ymap[y + 2];
+				for (int x = 0; x < w; x++) {
+					int x0 = xmap[x], x1 = xmap[x + 1], x2 = xmap[x + 2];
+					int p00 = at(luma, w, x0, y0), p10 = at(luma, w, x1, y0), p20 = at(luma, w, x2, y0);
+					int p01 = at(luma, w, x0, y1), p21 = at(luma, w, x2, y1);
+					int p02 = at(luma, w, x0, y2), p12 = at(luma, w, x1, y2), p22 = at(luma, w, x2, y2);
+					int gx = p20 + 2 * p21 + p22 - p00 - 2 * p01 - p02;
+					int gy = p02 + 2 * p12 + p22 - p00 - 2 * p10 - p20;
+					int m = Math.min(255, (int) Math.sqrt(gx * gx + gy * gy));
+					dst[y * w + x] = ARGBColor.ARGB_ALPHA_MASK | m << 16 | m << 8 | m;
+				}
+			}
+		});
+	}
+
+	private static int at(int[] pix, int w, int x, int y) {
+		return x < 0 || y < 0 ? 0 : pix[y * w + x];
+	}
+
+	@Override
+	public String toString() {
+		return "Convolution{" + "executor=" + executor + '}';
+	}
+}
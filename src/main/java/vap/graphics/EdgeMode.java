@@ -0,0 +1,81 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+/**
+ * 畳み込みなどで画像の外側のピクセルを参照する場合の扱いです.
+ *
+ * @version 1.0.0 - 2026/10/18_14:10:03<br>
+ * @author Shinacho<br>
+ */
+public enum EdgeMode {
+
+	/**
+	 * 最も近い端のピクセルを使用します.
+	 */
+	CLAMP {
+		@Override
+		public int map(int i, int n) {
+			return i < 0 ? 0 : i >= n ? n - 1 : i;
+		}
+	},
+	/**
+	 * 反対側の端から折り返したピクセルを使用します.画像をタイル状に並べた場合と同じ結果になります。
+	 */
+	WRAP {
+		@Override
+		public int map(int i, int n) {
+			return Math.floorMod(i, n);
+		}
+	},
+	/**
+	 * 端を軸に反転したピクセルを使用します.端のピクセルは2回使用されます。
+	 */
+	MIRROR {
+		@Override
+		public int map(int i, int n) {
+			int p = Math.floorMod(i, 2 * n);
+			return p < n ? p : 2 * n - 1 - p;
+		}
+	},
+	/**
+	 * 完全に透明な黒(0x00000000)として扱います.
+	 */
+	TRANSPARENT {
+		@Override
+		public int map(int i, int n) {
+			return i < 0 || i >= n ? -1 : i;
+		}
+	};
+
+	/**
+	 * 座標を画像内の座標に変換します.
+	 *
+	 * @param i 座標.範囲外の場合があります。<br>
+	 * @param n 画像の幅または高さ.<br>
+	 *
+	 * @return 0からn-1の座標.画像の外側を透明として扱う場合は-1.<br>
+	 */
+	public abstract int map(int i, int n);
+}
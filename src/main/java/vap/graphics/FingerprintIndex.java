@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 64ビットのフィンガープリントの近傍を検索するための索引です.
+ * <br>
+ * ハミング距離によるBK木で実装されており、距離の小さい検索では全件を比較せずに候補を絞り込みます。<br>
+ * 同じハッシュ値を持つ値は同じノードにまとめられます。<br>
+ * このクラスはスレッドセーフではありません。<br>
+ *
+ * @param <V> ハッシュ値に対応付ける値の型.<br>
+ *
+ * @version 1.0.0 - 2026/10/18_16:22:45<br>
+ * @author Shinacho<br>
+ */
+public final class FingerprintIndex<V> {
+
+	private static final class Node<V> {
+
+		private final long hash;
+		private final List<V> values = new ArrayList<>(1);
+		//距離dの子はchildren[d]
+		private Node<V>[] children;
+
+		private Node(long hash) {
+			this.hash = hash;
+		}
+	}
+
+	private Node<V> root;
+	private int size;
+
+	/**
+	 * ハッシュ値と値を追加します.
+	 *
+	 * @param hash ハッシュ値.<br>
+	 * @param value 値.<br>
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void add(long hash, V value) {
+		size++;
+		if (root == null) {
+			root = new Node<>(hash);
+			root.values.add(value);
+			return;
+		}
+		Node<V> n = root;
+		while (true) {
+			int d = ImageFingerprint.hammingDistance(n.hash, hash);
+			if (d == 0) {
+				n.values.add(value);
+				return;
+			}
+			if (n.children == null) {
+				n.children = new Node[65];
+			}
+			if (n.children[d] == null) {
+				Node<V> c = new Node<>(hash);
+				c.values.add(value);
+				n.children[d] = c;
+				return;
+			}
+			n = n.children[d];
+		}
+	}
+
+	/**
+	 * 指定されたハッシュ値から一定の距離以内にある値を全て返します.
+	 *
+	 * @param hash ハッシュ値.<br>
+	 * @param maxDistance 最大の距離.<br>
+	 *
+	 * @return 見つかった値.順序は定義されていません。<br>
+	 */
+	public List<V> findWithin(long hash, int maxDistance) {
+		List<V> res = new ArrayList<>();
+		if (root == null) {
+			return res;
+		}
+		List<Node<V>> stack = new ArrayList<>();
+		stack.add(root);
+		while (!stack.isEmpty()) {
+			Node<V> n = stack.remove(stack.size() - 1);
+			int d = ImageFingerprint.hammingDistance(n.hash, hash);
+			if (d <= maxDistance) {
+				res.addAll(n.values);
+			}
+			if (n.children == null) {
+				continue;
+			}
+			//三角不等式により、距離が d - maxDistance から d + maxDistance の子だけを調べればよい
+			for (int i = Math.max(1, d - maxDistance), end = Math.min(64, d + maxDistance); i <= end; i++) {
+				if (n.children[i] != null) {
+					stack.add(n.children[i]);
+				}
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * 一定の距離以内に値が存在するかを検査します.
+	 *
+	 * @param hash ハッシュ値.<br>
+	 * @param maxDistance 最大の距離.<br>
+	 *
+	 * @return 存在する場合true.<br>
+	 */
+	public boolean containsWithin(long hash, int maxDistance) {
+		return !findWithin(hash, maxDistance).isEmpty();
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	@Override
+	public String toString() {
+		return "FingerprintIndex{" + "size=" + size + '}';
+	}
+}
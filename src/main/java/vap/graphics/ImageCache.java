@@ -0,0 +1,379 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * ファイルから読み込んだ画像を保持するスレッドセーフなキャッシュです.
+ * <br>
+ * キャッシュの大きさは画像のバイト数(幅 x 高さ x 4)の合計で制限され、
+ * 上限を超えると最も長く使用されていない画像から破棄されます(LRU)。<br>
+ * 同じパスの画像を複数のスレッドが同時に要求した場合、読み込みは1回だけ行われ、全てのスレッドが同じ画像を受け取ります。<br>
+ * ファイルの更新日時または大きさが変わった場合、キャッシュされた画像は破棄されて再度読み込まれます。<br>
+ * キャッシュから返される画像は共有されるため、書き換えないでください。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_17:31:04<br>
+ * @author Shinacho<br>
+ */
+public final class ImageCache {
+
+	/**
+	 * キャッシュの統計情報のスナップショットです.
+	 */
+	public static final class Stats {
+
+		private final long hitCount;
+		private final long missCount;
+		private final long loadCount;
+		private final long loadFailureCount;
+		private final long evictionCount;
+		private final int size;
+		private final long bytes;
+		private final long maxBytes;
+
+		private Stats(long hitCount, long missCount, long loadCount, long loadFailureCount,
+				long evictionCount, int size, long bytes, long maxBytes) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.loadCount = loadCount;
+			this.loadFailureCount = loadFailureCount;
+			this.evictionCount = evictionCount;
+			this.size = size;
+			this.bytes = bytes;
+			this.maxBytes = maxBytes;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		public long getLoadCount() {
+			return loadCount;
+		}
+
+		public long getLoadFailureCount() {
+			return loadFailureCount;
+		}
+
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public long getBytes() {
+			return bytes;
+		}
+
+		public long getMaxBytes() {
+			return maxBytes;
+		}
+
+		/**
+		 * ヒット率を返します.
+		 *
+		 * @return 0から1のヒット率.要求がない場合は1。<br>
+		 */
+		public double getHitRate() {
+			long req = hitCount + missCount;
+			return req == 0 ? 1 : (double) hitCount / req;
+		}
+
+		@Override
+		public String toString() {
+			return "Stats{" + "hitCount=" + hitCount + ", missCount=" + missCount + ", loadCount=" + loadCount
+					+ ", loadFailureCount=" + loadFailureCount + ", evictionCount=" + evictionCount
+					+ ", size=" + size + ", bytes=" + bytes + ", maxBytes=" + maxBytes + '}';
+		}
+	}
+
+	private static final class Entry {
+
+		private final BufferedImage image;
+		private final long lastModified;
+		private final long length;
+		private final long weight;
+
+		private Entry(BufferedImage image, long lastModified, long length) {
+			this.image = image;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.weight = weightOf(image);
+		}
+	}
+
+	private final Function<File, BufferedImage> loader;
+	private final long maxBytes;
+	//アクセス順のLinkedHashMap.lockで保護される
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+	private final Object lock = new Object();
+	private final ConcurrentHashMap<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+	private long bytes;
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder loadCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	/**
+	 * キャッシュを作成します.
+	 *
+	 * @param maxBytes 保持する画像のバイト数の合計の上限.<br>
+	 * @param loader ファイルから画像を読み込む処理.ファイルの存在は呼び出し前に確認されます。<br>
+	 *
+	 * @throws IllegalArgumentException maxBytesが負の場合.<br>
+	 */
+	public ImageCache(long maxBytes, Function<File, BufferedImage> loader) throws IllegalArgumentException {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("ImageCache : maxBytes=[" + maxBytes + "]");
+		}
+		this.maxBytes = maxBytes;
+		this.loader = loader;
+	}
+
+	/**
+	 * 画像のキャッシュ上の重みを返します.
+	 *
+	 * @param image 画像.<br>
+	 *
+	 * @return 幅 x 高さ x 4.<br>
+	 */
+	public static long weightOf(BufferedImage image) {
+		return (long) image.getWidth() * image.getHeight() * 4;
+	}
+
+	/**
+	 * 画像を取得します.
+	 * キャッシュにない場合、またはファイルが更新されている場合は読み込みます。<br>
+	 *
+	 * @param filePath ファイルパス.<br>
+	 *
+	 * @return 画像.<br>
+	 *
+	 * @throws FileNotFoundException ファイルが存在しない場合.<br>
+	 * @throws ContentsIOException 読み込みに失敗した場合.<br>
+	 */
+	public BufferedImage get(String filePath) throws FileNotFoundException, ContentsIOException {
+		File file = new File(filePath);
+		long lastModified = file.lastModified();
+		long length = file.length();
+		synchronized (lock) {
+			Entry e = entries.get(filePath);
+			if (e != null) {
+				if (e.lastModified == lastModified && e.length == length) {
+					hitCount.increment();
+					return e.image;
+				}
+				entries.remove(filePath);
+				bytes -= e.weight;
+			}
+		}
+		CompletableFuture<Entry> f = new CompletableFuture<>();
+		CompletableFuture<Entry> running = loading.putIfAbsent(filePath, f);
+		if (running != null) {
+			//他のスレッドが読み込み中の場合はその結果を待つ
+			missCount.increment();
+			try {
+				return running.join().image;
+			} catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException re) {
+					throw re;
+				}
+				throw ex;
+			}
+		}
+		try {
+			//最初の確認からputIfAbsentまでの間に他のスレッドの読み込みが完了していた場合は、その結果を使用する
+			synchronized (lock) {
+				Entry e = entries.get(filePath);
+				if (e != null && e.lastModified == lastModified && e.length == length) {
+					hitCount.increment();
+					f.complete(e);
+					return e.image;
+				}
+			}
+			missCount.increment();
+			if (!file.exists()) {
+				throw new FileNotFoundException("notfound : filePath=[" + filePath + "]");
+			}
+			loadCount.increment();
+			BufferedImage image = loader.apply(file);
+			if (image == null) {
+				throw new ContentsIOException("image is null : filePath=[" + filePath + "]");
+			}
+			Entry e = new Entry(image, lastModified, length);
+			put(filePath, e);
+			f.complete(e);
+			return image;
+		} catch (RuntimeException | Error ex) {
+			loadFailureCount.increment();
+			f.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			loading.remove(filePath, f);
+		}
+	}
+
+	/**
+	 * キャッシュにある画像を取得します.このメソッドは読み込みを行いません.
+	 *
+	 * @param filePath ファイルパス.<br>
+	 *
+	 * @return 画像.キャッシュにない場合はnull。<br>
+	 */
+	public BufferedImage getIfPresent(String filePath) {
+		synchronized (lock) {
+			Entry e = entries.get(filePath);
+			if (e == null) {
+				missCount.increment();
+				return null;
+			}
+			hitCount.increment();
+			return e.image;
+		}
+	}
+
+	private void put(String key, Entry e) {
+		if (e.weight > maxBytes) {
+			//上限より大きい画像は保持しない
+			return;
+		}
+		synchronized (lock) {
+			Entry old = entries.put(key, e);
+			if (old != null) {
+				bytes -= old.weight;
+			}
+			bytes += e.weight;
+			Iterator<Entry> i = entries.values().iterator();
+			while (bytes > maxBytes && i.hasNext()) {
+				Entry eldest = i.next();
+				if (eldest == e) {
+					continue;
+				}
+				i.remove();
+				bytes -= eldest.weight;
+				evictionCount.increment();
+			}
+		}
+	}
+
+	/**
+	 * 画像をキャッシュから破棄します.
+	 *
+	 * @param filePath ファイルパス.<br>
+	 *
+	 * @return 破棄した場合true.<br>
+	 */
+	public boolean invalidate(String filePath) {
+		synchronized (lock) {
+			Entry e = entries.remove(filePath);
+			if (e == null) {
+				return false;
+			}
+			bytes -= e.weight;
+			return true;
+		}
+	}
+
+	/**
+	 * 全ての画像をキャッシュから破棄します.
+	 */
+	public void invalidateAll() {
+		synchronized (lock) {
+			entries.clear();
+			bytes = 0;
+		}
+	}
+
+	/**
+	 * キャッシュされているファイルパスを、最も長く使用されていないものから順に返します.
+	 *
+	 * @return 新しいリスト.<br>
+	 */
+	public List<String> keys() {
+		synchronized (lock) {
+			return new ArrayList<>(entries.keySet());
+		}
+	}
+
+	public boolean contains(String filePath) {
+		synchronized (lock) {
+			return entries.containsKey(filePath);
+		}
+	}
+
+	public int size() {
+		synchronized (lock) {
+			return entries.size();
+		}
+	}
+
+	public long getBytes() {
+		synchronized (lock) {
+			return bytes;
+		}
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * 統計情報を返します.
+	 *
+	 * @return 現在の統計情報.<br>
+	 */
+	public Stats stats() {
+		int size;
+		long b;
+		synchronized (lock) {
+			size = entries.size();
+			b = bytes;
+		}
+		return new Stats(hitCount.sum(), missCount.sum(), loadCount.sum(), loadFailureCount.sum(),
+				evictionCount.sum(), size, b, maxBytes);
+	}
+
+	@Override
+	public String toString() {
+		return "ImageCache{" + stats() + '}';
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.AWTError;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * 新しい画像を作成する方法です.
+ * <br>
+ * 画面の設定はCOMPATIBLEで初めて画像を作成するときに取得されるため、このクラスを使用するだけでは画面の初期化は行われません。<br>
+ * ヘッドレス環境や画面を取得できない環境では、COMPATIBLEはINT_ARGBと同じ画像を作成します。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_19:47:09<br>
+ * @author Shinacho<br>
+ */
+public enum ImageFactory {
+
+	/**
+	 * 画面と互換性のある透過画像を作成します.画面に高速に描画できますが、ピクセルの形式は環境によって異なります.
+	 */
+	COMPATIBLE {
+		@Override
+		public BufferedImage newImage(int width, int height) {
+			GraphicsConfiguration gc = getGraphicsConfiguration();
+			if (gc == null) {
+				return INT_ARGB.newImage(width, height);
+			}
+			return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
+	},
+	/**
+	 * TYPE_INT_ARGBの画像を作成します.ピクセルを直接参照する処理が最も高速になります.
+	 */
+	INT_ARGB {
+		@Override
+		public BufferedImage newImage(int width, int height) {
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+	},
+	/**
+	 * TYPE_INT_ARGB_PREの画像を作成します.半透明の画像を繰り返し合成する場合に高速です.
+	 */
+	INT_ARGB_PRE {
+		@Override
+		public BufferedImage newImage(int width, int height) {
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+		}
+	};
+
+	/**
+	 * 新しい空の画像を作成します.作成された画像は全てのピクセルが完全に透明な黒です.
+	 *
+	 * @param width 幅.<br>
+	 * @param height 高さ.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public abstract BufferedImage newImage(int width, int height);
+
+	/**
+	 * メインスクリーンのデバイス設定を取得します.
+	 * 初めて呼び出されたときに取得されます。<br>
+	 *
+	 * @return デバイスの設定.ヘッドレス環境の場合はnull。<br>
+	 */
+	public static GraphicsConfiguration getGraphicsConfiguration() {
+		return ScreenHolder.GC;
+	}
+
+	/**
+	 * 画面を使用できるかを検査します.
+	 *
+	 * @return 画面の設定を取得できる場合true.<br>
+	 */
+	public static boolean isScreenAvailable() {
+		return ScreenHolder.GC != null;
+	}
+
+	/**
+	 * 画面の設定を遅延して初期化するためのクラスです.
+	 */
+	private static final class ScreenHolder {
+
+		private static final GraphicsConfiguration GC = init();
+
+		private static GraphicsConfiguration init() {
+			if (GraphicsEnvironment.isHeadless()) {
+				return null;
+			}
+			try {
+				return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+			} catch (HeadlessException | AWTError ex) {
+				//DISPLAYが設定されていない場合など
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * 画像の知覚的なハッシュ(フィンガープリント)を算出します.
+ * <br>
+ * 内容がほぼ同じ画像は、アンチエイリアスや圧縮によるわずかな差があっても近いハッシュ値になります。
+ * 2つのハッシュ値の近さはhammingDistanceで比較します。<br>
+ * aHash : 8x8に縮小した輝度が平均より明るいかどうか。最も高速ですが、明るさの変化に弱いです。<br>
+ * dHash : 9x8に縮小した輝度が右隣より明るいかどうか。高速で、画面の変化の検出に適しています。<br>
+ * pHash : 32x32に縮小した輝度の離散コサイン変換の低周波成分が中央値より大きいかどうか。最も頑健です。<br>
+ * 縮小は各セルに含まれる全てのピクセルの輝度の平均(面積平均)で行うため、細い線や文字の変化も反映されます。
+ * 画像は1行ずつ読み込まれ、画像全体の複製は作成されません。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_16:22:45<br>
+ * @author Shinacho<br>
+ */
+public final class ImageFingerprint {
+
+	private static final int DCT_SIZE = 32;
+	private static final int DCT_LOW = 8;
+	/**
+	 * pHashで使用するコサインの表です.[u][x] = cos((2x + 1)uπ / 64)
+	 */
+	private static final double[][] COS = new double[DCT_LOW][DCT_SIZE];
+
+	static {
+		for (int u = 0; u < DCT_LOW; u++) {
+			for (int x = 0; x < DCT_SIZE; x++) {
+				COS[u][x] = Math.cos((2 * x + 1) * u * Math.PI / (2 * DCT_SIZE));
+			}
+		}
+	}
+
+	/**
+	 * ユーティリティクラスのためインスタンス化できません.
+	 */
+	private ImageFingerprint() {
+	}
+
+	/**
+	 * 2つのハッシュ値の異なるビットの数を返します.
+	 *
+	 * @param a ハッシュ値.<br>
+	 * @param b ハッシュ値.<br>
+	 *
+	 * @return 0から64の距離.小さいほど似ています。<br>
+	 */
+	public static int hammingDistance(long a, long b) {
+		return Long.bitCount(a ^ b);
+	}
+
+	/**
+	 * 平均ハッシュ(aHash)を算出します.
+	 *
+	 * @param image 画像.<br>
+	 *
+	 * @return ハッシュ値.<br>
+	 */
+	public static long aHash(BufferedImage image) {
+		int[] luma = downsample(image, 8, 8);
+		long sum = 0;
+		for (int v : luma) {
+			sum += v;
+		}
+		long res = 0;
+		for (int i = 0; i < 64; i++) {
+			if ((long) luma[i] * 64 > sum) {
+				res |= 1L << i;
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * 差分ハッシュ(dHash)を算出します.
+	 *
+	 * @param image 画像.<br>
+	 *
+	 * @return ハッシュ値.<br>
+	 */
+	public static long dHash(BufferedImage image) {
+		int[] luma = downsample(image, 9, 8);
+		long res = 0;
+		for (int y = 0, bit = 0; y < 8; y++) {
+			for (int x = 0; x < 8; x++, bit++) {
+				if (luma[y * 9 + x] > luma[y * 9 + x + 1]) {
+					res |= 1L << bit;
+				}
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * 知覚ハッシュ(pHash)を算出します.
+	 *
+	 * @param image 画像.<br>
+	 *
+	 * @return ハッシュ値.<br>
+	 */
+	public static long pHash(BufferedImage image) {
+		int[] luma = downsample(image, DCT_SIZE, DCT_SIZE);
+		//行方向の変換 : t[y][u]
+		double[] t = new double[DCT_SIZE * DCT_LOW];
+		for (int y = 0; y < DCT_SIZE; y++) {
+			for (int u = 0; u < DCT_LOW; u++) {
+				double s = 0;
+				double[] c = COS[u];
+				for (int x = 0; x < DCT_SIZE; x++) {
+					s += luma[y * DCT_SIZE + x] * c[x];
+				}
+				t[y * DCT_LOW + u] = s;
+			}
+		}
+		//列方向の変換 : f[v][u]
+		double[] f = new double[DCT_LOW * DCT_LOW];
+		for (int v = 0; v < DCT_LOW; v++) {
+			double[] c = COS[v];
+			for (int u = 0; u < DCT_LOW; u++) {
+				double s = 0;
+				for (int y = 0; y < DCT_SIZE; y++) {
+					s += t[y * DCT_LOW + u] * c[y];
+				}
+				f[v * DCT_LOW + u] = s;
+			}
+		}
+		//直流成分を除いた中央値
+		double[] sorted = Arrays.copyOfRange(f, 1, f.length);
+		Arrays.sort(sorted);
+		double median = (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+		long res = 0;
+		for (int i = 0; i < f.length; i++) {
+			if (f[i] > median) {
+				res |= 1L << i;
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * 画像を縮小した輝度を算出します.
+	 * 各セルに含まれるピクセルの輝度の平均を使用します。
+	 * 画像がセルの数より小さい場合は、複数のセルが同じピクセルを参照します。<br>
+	 *
+	 * @param image 画像.<br>
+	 * @param gw 縮小後の幅.<br>
+	 * @param gh 縮小後の高さ.<br>
+	 *
+	 * @return 0から255の輝度の配列.<br>
+	 */
+	static int[] downsample(BufferedImage image, int gw, int gh) {
+		int w = image.getWidth();
+		int h = image.getHeight();
+		int[] xr = cellRanges(w, gw);
+		int[] yr = cellRanges(h, gh);
+		long[] sum = new long[gw * gh];
+		int[] row = new int[w];
+		int[] luma = new int[w];
+		long[] colSum = new long[gw];
+		for (int y = 0; y < h; y++) {
+			//TYPE_INT_ARGBとTYPE_INT_RGBはラスタから行ごとに複製される
+			ImageUtil.getPixels(image, 0, y, w, 1, row, 0, w);
+			for (int x = 0; x < w; x++) {
+				luma[x] = luma(row[x]);
+			}
+			for (int cx = 0; cx < gw; cx++) {
+				long s = 0;
+				for (int x = xr[cx * 2], end = xr[cx * 2 + 1]; x < end; x++) {
+					s += luma[x];
+				}
+				colSum[cx] = s;
+			}
+			for (int cy = 0; cy < gh; cy++) {
+				if (yr[cy * 2] <= y && y < yr[cy * 2 + 1]) {
+					for (int cx = 0; cx < gw; cx++) {
+						sum[cy * gw + cx] += colSum[cx];
+					}
+				}
+			}
+		}
+		int[] res = new int[gw * gh];
+		for (int cy = 0; cy < gh; cy++) {
+			for (int cx = 0; cx < gw; cx++) {
+				long area = (long) (xr[cx * 2 + 1] - xr[cx * 2]) * (yr[cy * 2 + 1] - yr[cy * 2]);
+				res[cy * gw + cx] = (int) (sum[cy * gw + cx] / area);
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * 長さnをcells個のセルに分割したときの各セルの範囲を返します.
+	 * セル c の範囲は [res[2c], res[2c + 1]) です。nがcellsより小さい場合も、各セルは少なくとも1つのピクセルを含みます。<br>
+	 */
+	private static int[] cellRanges(int n, int cells) {
+		int[] res = new int[cells * 2];
+		for (int c = 0; c < cells; c++) {
+			int from = (int) ((long) c * n / cells);
+			res[c * 2] = from;
+			res[c * 2 + 1] = Math.max(from + 1, (int) ((long) (c + 1) * n / cells));
+		}
+		return res;
+	}
+
+	private static int luma(int argb) {
+		int p = ARGBColor.premultiply(argb);
+		return ((p >>> 16 & 0xFF) * ChannelKernels.WEIGHT_R
+				+ (p >>> 8 & 0xFF) * ChannelKernels.WEIGHT_G
+				+ (p & 0xFF) * ChannelKernels.WEIGHT_B) >>> 16;
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import javax.imageio.ImageIO;
+
+/**
+ * 複数の画像をバックグラウンドで並列に読み込み、キャッシュに格納します.
+ * <br>
+ * 読み込みは並列度が制限された専用のデーモンスレッドで行われるため、呼び出し元のスレッド(Swingのイベントディスパッチスレッドなど)を止めません。<br>
+ * 読み込んだ画像はImageCacheに格納されるため、その後のImageUtil.loadはキャッシュから即座に返ります。<br>
+ * 読み込みの完了はCompletableFutureまたはコールバックで通知されます。
+ * コールバックは読み込みを行ったスレッドで呼び出されるため、Swingのコンポーネントを操作する場合はSwingUtilities.invokeLaterを使用してください。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_17:52:26<br>
+ * @author Shinacho<br>
+ */
+public final class ImagePreloader implements AutoCloseable {
+
+	private static volatile ImagePreloader defaultPreloader;
+
+	/**
+	 * ImageUtilのキャッシュに読み込む既定のインスタンスを返します.
+	 * 並列度は(CPU数 - 1)です。<br>
+	 *
+	 * @return 既定のインスタンス.<br>
+	 */
+	public static ImagePreloader getDefault() {
+		ImagePreloader p = defaultPreloader;
+		if (p == null) {
+			synchronized (ImagePreloader.class) {
+				p = defaultPreloader;
+				if (p == null) {
+					defaultPreloader = p = new ImagePreloader(ImageUtil.getImageCache(),
+							Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+				}
+			}
+		}
+		return p;
+	}
+
+	private final ImageCache cache;
+	private final ExecutorService executor;
+	private final int parallelism;
+
+	/**
+	 * 指定されたキャッシュに読み込むインスタンスを作成します.
+	 *
+	 * @param cache 読み込んだ画像を格納するキャッシュ.<br>
+	 * @param parallelism 同時に読み込む画像の最大数.<br>
+	 *
+	 * @throws IllegalArgumentException parallelismが1未満の場合.<br>
+	 */
+	public ImagePreloader(ImageCache cache, int parallelism) throws IllegalArgumentException {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("ImagePreloader : parallelism=[" + parallelism + "]");
+		}
+		this.cache = cache;
+		this.parallelism = parallelism;
+		AtomicInteger n = new AtomicInteger();
+		ThreadPoolExecutor e = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread t = new Thread(r, "vap-preload-" + n.getAndIncrement());
+					t.setDaemon(true);
+					return t;
+				});
+		//使用していない間はスレッドを残さない
+		e.allowCoreThreadTimeOut(true);
+		this.executor = e;
+	}
+
+	/**
+	 * 1つの画像を非同期に読み込みます.
+	 *
+	 * @param filePath ファイルパス.<br>
+	 *
+	 * @return 読み込んだ画像を返すFuture.読み込みに失敗した場合は例外で完了します。<br>
+	 */
+	public CompletableFuture<BufferedImage> load(String filePath) {
+		return CompletableFuture.supplyAsync(() -> cache.get(filePath), executor);
+	}
+
+	/**
+	 * 複数の画像を非同期に読み込みます.
+	 *
+	 * @param filePaths ファイルパス.<br>
+	 *
+	 * @return filePathsと同じ順序のFutureのリスト.<br>
+	 */
+	public List<CompletableFuture<BufferedImage>> loadAll(Collection<String> filePaths) {
+		return loadAll(filePaths, null);
+	}
+
+	/**
+	 * 複数の画像を非同期に読み込み、1つ読み込むごとにコールバックを呼び出します.
+	 *
+	 * @param filePaths ファイルパス.<br>
+	 * @param onLoaded 読み込みに成功した画像ごとに、ファイルパスと画像を受け取る処理.nullの場合は呼び出されません。<br>
+	 *
+	 * @return filePathsと同じ順序のFutureのリスト.<br>
+	 */
+	public List<CompletableFuture<BufferedImage>> loadAll(Collection<String> filePaths,
+			BiConsumer<String, BufferedImage> onLoaded) {
+		List<CompletableFuture<BufferedImage>> res = new ArrayList<>(filePaths.size());
+		for (String path : filePaths) {
+			CompletableFuture<BufferedImage> f = CompletableFuture.supplyAsync(() -> {
+				BufferedImage image = cache.get(path);
+				if (onLoaded != null) {
+					onLoaded.accept(path, image);
+				}
+				return image;
+			}, executor);
+			res.add(f);
+		}
+		return res;
+	}
+
+	/**
+	 * ディレクトリ内の画像ファイルを全て非同期に読み込みます.
+	 * ImageIOが読み込める拡張子とRawImageFormat.EXTENSIONのファイルが対象で、サブディレクトリは含みません。<br>
+	 *
+	 * @param dir ディレクトリ.<br>
+	 * @param onLoaded 読み込みに成功した画像ごとに、ファイルパスと画像を受け取る処理.nullの場合は呼び出されません。<br>
+	 *
+	 * @return ファイル名の順序のFutureのリスト.<br>
+	 *
+	 * @throws FileNotFoundException ディレクトリが存在しない場合.<br>
+	 */
+	public List<CompletableFuture<BufferedImage>> loadDirectory(File dir, BiConsumer<String, BufferedImage> onLoaded)
+			throws FileNotFoundException {
+		File[] files = dir.listFiles(File::isFile);
+		if (files == null) {
+			throw new FileNotFoundException("notfound : dir=[" + dir + "]");
+		}
+		Set<String> suffixes = Arrays.stream(ImageIO.getReaderFileSuffixes())
+				.map(p -> p.toLowerCase(Locale.ROOT))
+				.collect(Collectors.toCollection(HashSet::new));
+		suffixes.add(RawImageFormat.EXTENSION);
+		Arrays.sort(files);
+		List<String> paths = new ArrayList<>(files.length);
+		for (File f : files) {
+			String name = f.getName();
+			int i = name.lastIndexOf('.');
+			if (i >= 0 && suffixes.contains(name.substring(i + 1).toLowerCase(Locale.ROOT))) {
+				paths.add(f.getPath());
+			}
+		}
+		return loadAll(paths, onLoaded);
+	}
+
+	/**
+	 * 全てのFutureが完了したときに完了するFutureを返します.
+	 * いずれかの読み込みが失敗した場合は、全てが完了した後に例外で完了します。<br>
+	 *
+	 * @param futures loadAllなどが返したFuture.<br>
+	 *
+	 * @return 全ての完了を表すFuture.<br>
+	 */
+	public static CompletableFuture<Void> allOf(List<CompletableFuture<BufferedImage>> futures) {
+		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+	}
+
+	public ImageCache getCache() {
+		return cache;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * 新しい読み込みの受付を停止します.既に受け付けた読み込みは継続されます.
+	 * 既定のインスタンスはプロセス全体で共有されるため閉じることはできません。<br>
+	 *
+	 * @throws IllegalStateException 既定のインスタンスを閉じようとした場合.<br>
+	 */
+	@Override
+	public void close() throws IllegalStateException {
+		if (this == defaultPreloader) {
+			throw new IllegalStateException("ImagePreloader : the default instance cannot be closed");
+		}
+		executor.shutdown();
+	}
+
+	@Override
+	public String toString() {
+		return "ImagePreloader{" + "parallelism=" + parallelism + ", cache=" + cache + '}';
+	}
+}
@@ -0,0 +1,446 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 画像をバックグラウンドでPNGファイルに保存するサービスです.
+ * <br>
+ * submitは画像のピクセルを複製してキューに入れるだけで戻るため、呼び出し元のスレッドはエンコードやディスクへの書き込みを待ちません。
+ * 複製した後は元の画像を書き換えても保存される内容は変わりません。<br>
+ * キューは保存待ちのピクセルのバイト数で制限され、上限を超える場合の動作をOverflowPolicyで選択できます。<br>
+ * ファイルは一時ファイルに書き込んだ後に置き換えられるため、書き込み途中のファイルが残ることはありません。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_19:24:43<br>
+ * @author Shinacho<br>
+ */
+public final class ImageSaveService implements AutoCloseable {
+
+	/**
+	 * キューが一杯の場合の動作です.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * 空きができるまで呼び出し元のスレッドを待たせます.
+		 */
+		BLOCK,
+		/**
+		 * 最も古い保存待ちの画像を破棄します.破棄された画像のFutureは取り消されます.
+		 */
+		DROP_OLDEST,
+		/**
+		 * 収まるまで画像を縦横1/2に縮小します.縦横1/4まで縮小しても収まらない場合は最も古い画像を破棄します.
+		 */
+		DOWNSCALE;
+	}
+
+	private static final class Job {
+
+		private final int[] pix;
+		private final int width;
+		private final int height;
+		private final File file;
+		private final CompletableFuture<File> future = new CompletableFuture<>();
+
+		private Job(int[] pix, int width, int height, File file) {
+			this.pix = pix;
+			this.width = width;
+			this.height = height;
+			this.file = file;
+		}
+
+		private long bytes() {
+			return (long) pix.length * 4;
+		}
+	}
+
+	/**
+	 * DOWNSCALEで縮小する最大の回数です.
+	 */
+	private static final int MAX_HALVINGS = 2;
+	private final long maxQueuedBytes;
+	private final OverflowPolicy policy;
+	private final boolean fsync;
+	private final PngEncoder encoder;
+	private final ArrayDeque<Job> queue = new ArrayDeque<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	private long queuedBytes;
+	private boolean closed;
+	private final Thread[] writers;
+	private final LongAdder submittedCount = new LongAdder();
+	private final LongAdder savedCount = new LongAdder();
+	private final LongAdder failedCount = new LongAdder();
+	private final LongAdder droppedCount = new LongAdder();
+	private final LongAdder downscaledCount = new LongAdder();
+	private final LongAdder bytesWritten = new LongAdder();
+	private final LongAdder encodeNanos = new LongAdder();
+
+	/**
+	 * 1つの書き込みスレッドを持ち、古い画像を破棄するサービスを作成します.
+	 * エンコードにはPngEncoder.FASTを使用し、キューの上限は256MBです。<br>
+	 */
+	public ImageSaveService() {
+		this(1, 256L * 1024 * 1024, OverflowPolicy.DROP_OLDEST, false, PngEncoder.FAST);
+	}
+
+	/**
+	 * サービスを作成します.
+	 *
+	 * @param writerThreads 書き込みスレッドの数.<br>
+	 * @param maxQueuedBytes 保存待ちのピクセルのバイト数(幅 x 高さ x 4の合計)の上限.<br>
+	 * @param policy キューが一杯の場合の動作.<br>
+	 * @param fsync trueの場合、書き込んだファイルを閉じる前にディスクに同期し、置き換えた後にディレクトリも同期します.
+	 * ディレクトリを同期できないプラットフォーム(Windowsなど)では、電源断の直後に置き換えが失われる場合があります。<br>
+	 * @param encoder PNGエンコーダ.<br>
+	 *
+	 * @throws IllegalArgumentException 引数が不正な場合.<br>
+	 */
+	public ImageSaveService(int writerThreads, long maxQueuedBytes, OverflowPolicy policy, boolean fsync, PngEncoder encoder)
+			throws IllegalArgumentException {
+		if (writerThreads < 1 || maxQueuedBytes <= 0 || policy == null || encoder == null) {
+			throw new IllegalArgumentException("ImageSaveService : writerThreads=[" + writerThreads
+					+ "] maxQueuedBytes=[" + maxQueuedBytes + "] policy=[" + policy + "] encoder=[" + encoder + "]");
+		}
+		this.maxQueuedBytes = maxQueuedBytes;
+		this.policy = policy;
+		this.fsync = fsync;
+		this.encoder = encoder;
+		this.writers = new Thread[writerThreads];
+		for (int i = 0; i < writerThreads; i++) {
+			Thread t = new Thread(this::runWriter, "vap-save-" + i);
+			t.setDaemon(true);
+			writers[i] = t;
+			t.start();
+		}
+	}
+
+	/**
+	 * 画像の保存を要求します.
+	 *
+	 * @param image 保存する画像.この時点の内容が保存されます。<br>
+	 * @param file 書き込むファイル.上書きされます。<br>
+	 *
+	 * @return 保存が完了したときにファイルを返すFuture.破棄された場合は取り消され、失敗した場合は例外で完了します。<br>
+	 *
+	 * @throws IllegalStateException サービスが閉じられている場合.<br>
+	 */
+	public CompletableFuture<File> submit(RasterImage image, File file) throws IllegalStateException {
+		return submit(image.image, file);
+	}
+
+	/**
+	 * 画像の保存を要求します.
+	 *
+	 * @param image 保存する画像.この時点の内容が保存されます。<br>
+	 * @param file 書き込むファイル.上書きされます。<br>
+	 *
+	 * @return 保存が完了したときにファイルを返すFuture.破棄された場合は取り消され、失敗した場合は例外で完了します。<br>
+	 *
+	 * @throws IllegalStateException サービスが閉じられている場合.<br>
+	 */
+	public CompletableFuture<File> submit(BufferedImage image, File file) throws IllegalStateException {
+		//ジョブは書き込みが終わるまでピクセルを保持するため、プールを使用せずに複製する
+		int w = image.getWidth();
+		int h = image.getHeight();
+		Job job = new Job(ImageUtil.getPixels(image, 0, 0, w, h, null, 0, w), w, h, file);
+		if (policy == OverflowPolicy.DOWNSCALE) {
+			job = downscaleToFit(job);
+		}
+		lock.lock();
+		try {
+			if (closed) {
+				throw new IllegalStateException("ImageSaveService : closed");
+			}
+			//キューが空の場合は上限より大きくても受け付ける
+			while (!queue.isEmpty() && queuedBytes + job.bytes() > maxQueuedBytes) {
+				if (policy == OverflowPolicy.BLOCK) {
+					notFull.awaitUninterruptibly();
+					if (closed) {
+						throw new IllegalStateException("ImageSaveService : closed");
+					}
+				} else {
+					Job old = queue.pollFirst();
+					queuedBytes -= old.bytes();
+					droppedCount.increment();
+					old.future.cancel(false);
+				}
+			}
+			submittedCount.increment();
+			queue.addLast(job);
+			queuedBytes += job.bytes();
+			notEmpty.signal();
+		} finally {
+			lock.unlock();
+		}
+		return job.future;
+	}
+
+	private Job downscaleToFit(Job job) {
+		long free;
+		lock.lock();
+		try {
+			free = maxQueuedBytes - queuedBytes;
+		} finally {
+			lock.unlock();
+		}
+		int[] pix = job.pix;
+		int w = job.width;
+		int h = job.height;
+		if ((long) pix.length * 4 <= free) {
+			return job;
+		}
+		for (int i = 0; i < MAX_HALVINGS && (long) w * h * 4 > free && (w > 1 || h > 1); i++) {
+			int nw = Math.max(1, w / 2);
+			int nh = Math.max(1, h / 2);
+			pix = halve(pix, w, h, nw, nh);
+			w = nw;
+			h = nh;
+		}
+		downscaledCount.increment();
+		return new Job(pix, w, h, job.file);
+	}
+
+	/**
+	 * 画像を縦横1/2に縮小します.各ピクセルは対応する最大2x2のピクセルの乗算済みアルファでの平均です.
+	 */
+	private static int[] halve(int[] pix, int w, int h, int nw, int nh) {
+		int[] res = new int[nw * nh];
+		int sx = w > 1 ? 2 : 1;
+		int sy = h > 1 ? 2 : 1;
+		int n = sx * sy;
+		for (int y = 0; y < nh; y++) {
+			for (int x = 0; x < nw; x++) {
+				int a = 0, r = 0, g = 0, b = 0;
+				for (int j = 0; j < sy; j++) {
+					int row = (y * sy + j) * w;
+					for (int i = 0; i < sx; i++) {
+						int p = ARGBColor.premultiply(pix[row + x * sx + i]);
+						a += p >>> 24;
+						r += p >>> 16 & 0xFF;
+						g += p >>> 8 & 0xFF;
+						b += p & 0xFF;
+					}
+				}
+				res[y * nw + x] = ARGBColor.unpremultiply(ARGBColor.toARGBUnchecked(a / n, r / n, g / n, b / n));
+			}
+		}
+		return res;
+	}
+
+	private void runWriter() {
+		while (true) {
+			Job job;
+			lock.lock();
+			try {
+				while (queue.isEmpty() && !closed) {
+					notEmpty.awaitUninterruptibly();
+				}
+				job = queue.pollFirst();
+				if (job == null) {
+					return;
+				}
+				queuedBytes -= job.bytes();
+				notFull.signal();
+			} finally {
+				lock.unlock();
+			}
+			try {
+				write(job);
+				savedCount.increment();
+				job.future.complete(job.file);
+			} catch (Throwable ex) {
+				//OutOfMemoryErrorなどでも書き込みスレッドを終了させず、次の画像の保存を続ける
+				failedCount.increment();
+				job.future.completeExceptionally(ex);
+			}
+		}
+	}
+
+	private void write(Job job) throws IOException {
+		//同じファイルへの保存が複数のスレッドで同時に行われても衝突しないように、一時ファイルは保存ごとに作成する
+		Path target = job.file.getAbsoluteFile().toPath();
+		Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		boolean moved = false;
+		try {
+			long start = System.nanoTime();
+			try (FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
+				BufferedOutputStream out = new BufferedOutputStream(fos, 64 * 1024);
+				encoder.encode(job.pix, 0, job.width, job.width, job.height, out);
+				out.flush();
+				if (fsync) {
+					fos.getFD().sync();
+				}
+			}
+			encodeNanos.add(System.nanoTime() - start);
+			bytesWritten.add(Files.size(tmp));
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			moved = true;
+			if (fsync) {
+				syncDirectory(target.getParent());
+			}
+		} finally {
+			if (!moved) {
+				try {
+					Files.deleteIfExists(tmp);
+				} catch (IOException ex) {
+					//元の例外を優先する
+				}
+			}
+		}
+	}
+
+	/**
+	 * 置き換えたファイルのディレクトリエントリをディスクに同期します.
+	 * ディレクトリを開けないプラットフォーム(Windowsなど)では何もしません。<br>
+	 */
+	private static void syncDirectory(Path dir) {
+		try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+			ch.force(true);
+		} catch (IOException ex) {
+			//ファイル自体は同期済みのため、置き換えが失われる可能性があるだけで保存は失敗させない
+		}
+	}
+
+	/**
+	 * 新しい要求の受付を停止し、キューに残っている画像を全て保存してから戻ります.
+	 */
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			closed = true;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		for (Thread t : writers) {
+			try {
+				t.join();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * 保存待ちの画像の数を返します.
+	 *
+	 * @return キューの長さ.<br>
+	 */
+	public int getQueueDepth() {
+		lock.lock();
+		try {
+			return queue.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 保存待ちのピクセルのバイト数を返します.
+	 *
+	 * @return バイト数.<br>
+	 */
+	public long getQueuedBytes() {
+		lock.lock();
+		try {
+			return queuedBytes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getMaxQueuedBytes() {
+		return maxQueuedBytes;
+	}
+
+	public OverflowPolicy getPolicy() {
+		return policy;
+	}
+
+	public long getSubmittedCount() {
+		return submittedCount.sum();
+	}
+
+	public long getSavedCount() {
+		return savedCount.sum();
+	}
+
+	public long getFailedCount() {
+		return failedCount.sum();
+	}
+
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	public long getDownscaledCount() {
+		return downscaledCount.sum();
+	}
+
+	/**
+	 * 書き込んだファイルのバイト数の合計を返します.
+	 *
+	 * @return バイト数.<br>
+	 */
+	public long getBytesWritten() {
+		return bytesWritten.sum();
+	}
+
+	/**
+	 * エンコードと書き込みに要した時間の合計を返します.
+	 *
+	 * @return ナノ秒.<br>
+	 */
+	public long getEncodeNanos() {
+		return encodeNanos.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "ImageSaveService{" + "policy=" + policy + ", queueDepth=" + getQueueDepth()
+				+ ", queuedBytes=" + getQueuedBytes() + ", saved=" + getSavedCount() + ", failed=" + getFailedCount()
+				+ ", dropped=" + getDroppedCount() + ", downscaled=" + getDownscaledCount()
+				+ ", bytesWritten=" + getBytesWritten() + ", encodeNanos=" + getEncodeNanos() + '}';
+	}
+}
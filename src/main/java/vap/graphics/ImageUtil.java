@@ -25,13 +25,10 @@ package vap.graphics;
 
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
-import java.awt.GraphicsEnvironment;
-import java.awt.Transparency;
 import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
 import java.io.File;
 import java.io.IOException;
-import java.lang.ref.WeakReference;
-import java.util.HashMap;
 import javax.imageio.ImageIO;
 
 /**
@@ -49,24 +46,56 @@ import javax.imageio.ImageIO;
 public final class ImageUtil {
 
 	/**
-	 * デフォルトのウインドウシステムがサポートする画像の生成機能を持った、グラフィックスの設定です.
+	 * newImageで使用される画像の作成方法です.
+	 * システムプロパティ vap.graphics.imageFactory にImageFactoryの名前を指定して変更できます。<br>
 	 */
-	private static final GraphicsConfiguration gc
-			= GraphicsEnvironment.getLocalGraphicsEnvironment().
-					getDefaultScreenDevice().getDefaultConfiguration();
+	private static volatile ImageFactory defaultFactory
+			= ImageFactory.valueOf(System.getProperty("vap.graphics.imageFactory", ImageFactory.COMPATIBLE.name()));
 	/**
-	 * ロードした画像をキャッシュするためのマップです.
+	 * ロードした画像をキャッシュするためのキャッシュです.
+	 * 上限のバイト数はシステムプロパティ vap.graphics.imageCacheBytes で指定でき、既定では最大ヒープサイズの1/4です。<br>
 	 */
-	private static final HashMap<String, WeakReference<BufferedImage>> IMAGE_CACHE
-			= new HashMap<>(32);
+	private static final ImageCache IMAGE_CACHE
+			= new ImageCache(Long.getLong("vap.graphics.imageCacheBytes", Runtime.getRuntime().maxMemory() / 4),
+					ImageUtil::read);
 
 	/**
 	 * メインスクリーンのデバイス設定を取得します。<br>
 	 *
-	 * @return デバイスの設定。このインスタンスから画像を作成できます。<br>
+	 * @return デバイスの設定。このインスタンスから画像を作成できます。ヘッドレス環境の場合はnull。<br>
 	 */
 	public static GraphicsConfiguration getGraphicsConfiguration() {
-		return gc;
+		return ImageFactory.getGraphicsConfiguration();
+	}
+
+	/**
+	 * newImageで使用される画像の作成方法を取得します.
+	 *
+	 * @return 画像の作成方法.<br>
+	 */
+	public static ImageFactory getImageFactory() {
+		return defaultFactory;
+	}
+
+	/**
+	 * newImageで使用される画像の作成方法を変更します.
+	 *
+	 * @param f 画像の作成方法.<br>
+	 */
+	public static void setImageFactory(ImageFactory f) {
+		if (f == null) {
+			throw new IllegalArgumentException("factory is null");
+		}
+		defaultFactory = f;
+	}
+
+	/**
+	 * loadで使用される画像のキャッシュを取得します.
+	 *
+	 * @return キャッシュ.<br>
+	 */
+	public static ImageCache getImageCache() {
+		return IMAGE_CACHE;
 	}
 
 	/**
@@ -78,6 +107,7 @@ public final class ImageUtil {
 	//------------------------------------------------------------------------------------------------------------
 	/**
 	 * 新しい空のBufferedImageを生成します. 作成された画像は全てのピクセルが完全に透明な黒(0x00000000)です。<br>
+	 * 画像はgetImageFactoryが返す方法で作成されます。<br>
 	 *
 	 * @param width 画像の幅をピクセル単位で指定します。<br>
 	 * @param height 画像の高さをピクセル単位で指定します。<br>
@@ -85,7 +115,7 @@ public final class ImageUtil {
 	 * @return BufferedImageの新しいインスタンスを返します。<br>
 	 */
 	public static BufferedImage newImage(int width, int height) {
-		return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		return defaultFactory.newImage(width, height);
 	}
 
 	/**
@@ -118,10 +148,28 @@ public final class ImageUtil {
 		return dst;
 	}
 
+	/**
+	 * BufferedImageの複製を、元の画像と同じ形式の新しいインスタンスとして返します.
+	 * 描画を行わずラスタのデータをそのまま複製するため、copyより高速で、ピクセルの値も変化しません。<br>
+	 *
+	 * @param src コピーする画像.部分画像の場合は、その範囲だけが複製されます。<br>
+	 *
+	 * @return srcと同じ画像の新しいインスタンス.<br>
+	 */
+	public static BufferedImage copyRaster(BufferedImage src) {
+		WritableRaster r = src.getRaster();
+		WritableRaster dst = r.createCompatibleWritableRaster(src.getWidth(), src.getHeight());
+		//同じ種類のラスタ間では行ごとの配列のコピーになる
+		dst.setDataElements(0, 0, r);
+		return new BufferedImage(src.getColorModel(), dst, src.isAlphaPremultiplied(), null);
+	}
+
 	/**
 	 * BufferedImageをファイルから作成します.
 	 * このメソッドはすでに一度要求された画像を再度要求した場合、同じインスタンスを返します。<br>
+	 * ただし、キャッシュの上限を超えて破棄された場合や、ファイルが更新された場合は再度読み込まれます。<br>
 	 * 確実に別のインスタンスを取得する場合はこのメソッドの戻り値に対してこのクラスのcopyメソッドを使用してください。<br>
+	 * 拡張子がRawImageFormat.EXTENSIONのファイルはRawImageFormatとして読み込まれます。<br>
 	 *
 	 * @param filePath 読み込むファイルパス。<br>
 	 *
@@ -131,18 +179,22 @@ public final class ImageUtil {
 	 * @throws ContentsIOException ファイルがロードできない場合に投げられます。<br>
 	 */
 	public static BufferedImage load(String filePath) throws FileNotFoundException, ContentsIOException {
-		WeakReference<BufferedImage> cacheRef = IMAGE_CACHE.get(filePath);
-		//キャッシュあり&GC未実行
-		if (cacheRef != null) {
-			var v = cacheRef.get();
-			if (v != null) {
-				return v;
-			}
-		}
-		//GCが実行されているかキャッシュがなければ新しくロードしてキャッシュに追加する
-		File file = new File(filePath);
-		if (!file.exists()) {
-			throw new FileNotFoundException("notfound : filePath=[" + filePath + "]");
+		return IMAGE_CACHE.get(filePath);
+	}
+
+	/**
+	 * ファイルから画像を読み込み、互換画像に変換します.このメソッドはキャッシュを使用しません.
+	 *
+	 * @param file 読み込むファイル.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 *
+	 * @throws ContentsIOException ファイルがロードできない場合に投げられます。<br>
+	 */
+	private static BufferedImage read(File file) throws ContentsIOException {
+		if (RawImageFormat.isRawFile(file)) {
+			//デコードが不要な形式はそのまま使用する
+			return RawImageFormat.read(file);
 		}
 		BufferedImage dst = null;
 		try {
@@ -158,12 +210,12 @@ public final class ImageUtil {
 		Graphics2D g2 = createGraphics2D(newImage, RenderingQuality.QUALITY);
 		g2.drawImage(dst, 0, 0, null);
 		g2.dispose();
-		IMAGE_CACHE.put(filePath, new WeakReference<>(newImage));
 		return newImage;
 	}
 
 	/**
 	 * BufferedImageをファイルに保存します. 画像形式は透過PNG画像となります。<br>
+	 * エンコードにはImageIOが使用されます。圧縮の設定を指定する場合はPngEncoderを使用してください。<br>
 	 *
 	 * @param filePath 書き込むファイルパス.上書きは確認されず、拡張子も任意。<br>
 	 * @param image 書き込む画像。<br>
@@ -235,8 +287,170 @@ public final class ImageUtil {
 		image.setRGB(0, 0, image.getWidth(), image.getHeight(), newPix, 0, image.getWidth());
 	}
 
-	public static int getPixel(BufferedImage image, int x, int y) {
-		return getPixel2D(image)[y][x];
+	/**
+	 * 1つのピクセルのARGBを取得します.このメソッドは画像全体を複製しません.
+	 *
+	 * @param image 画像.<br>
+	 * @param x 位置.<br>
+	 * @param y 位置.<br>
+	 *
+	 * @return ARGB.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 位置が画像の外の場合.<br>
+	 */
+	public static int getPixel(BufferedImage image, int x, int y) throws IndexOutOfBoundsException {
+		return image.getRGB(x, y);
+	}
+
+	/**
+	 * 1つのピクセルのARGBを設定します.
+	 *
+	 * @param image 画像.<br>
+	 * @param x 位置.<br>
+	 * @param y 位置.<br>
+	 * @param argb ARGB.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 位置が画像の外の場合.<br>
+	 */
+	public static void setPixel(BufferedImage image, int x, int y, int argb) throws IndexOutOfBoundsException {
+		image.setRGB(x, y, argb);
+	}
+
+	/**
+	 * 矩形の範囲のピクセルを配列に読み込みます.
+	 * 位置(x + i, y + j)のピクセルは dst[offset + j * scan + i] に格納されます。<br>
+	 * TYPE_INT_ARGBとTYPE_INT_RGBの画像はラスタから配列のコピーで読み込まれます。
+	 * データバッファを直接参照しないため、画像の描画の高速化は維持されます。<br>
+	 *
+	 * @param image 画像.<br>
+	 * @param x 範囲の左上.<br>
+	 * @param y 範囲の左上.<br>
+	 * @param w 範囲の幅.<br>
+	 * @param h 範囲の高さ.<br>
+	 * @param dst 格納先.nullの場合は w * h の新しい配列を作成します。<br>
+	 * @param offset 格納先の開始位置.<br>
+	 * @param scan 格納先の行の間隔.<br>
+	 *
+	 * @return dst.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 範囲が画像の外にはみ出す場合.<br>
+	 */
+	public static int[] getPixels(BufferedImage image, int x, int y, int w, int h, int[] dst, int offset, int scan)
+			throws IndexOutOfBoundsException {
+		checkBounds(image, x, y, w, h);
+		if (dst == null) {
+			dst = new int[w * h];
+			offset = 0;
+			scan = w;
+		}
+		int type = image.getType();
+		if (type != BufferedImage.TYPE_INT_ARGB && type != BufferedImage.TYPE_INT_RGB) {
+			return image.getRGB(x, y, w, h, dst, offset, scan);
+		}
+		//ラスタ経由でコピーし、データバッファを取り出さないことで描画の高速化を維持する
+		WritableRaster r = image.getRaster();
+		//ラスタは配列の先頭から詰めて読み書きするため、行の間隔が幅と異なる場合は行ごとに作業用の配列を経由する
+		if (offset == 0 && (scan == w || h == 1) && dst.length >= w * h) {
+			r.getDataElements(x, y, w, h, dst);
+		} else {
+			int[] row = rowBuffer(w);
+			for (int j = 0; j < h; j++) {
+				r.getDataElements(x, y + j, w, 1, row);
+				System.arraycopy(row, 0, dst, offset + j * scan, w);
+			}
+		}
+		if (type == BufferedImage.TYPE_INT_RGB) {
+			for (int j = 0; j < h; j++) {
+				for (int i = offset + j * scan, end = i + w; i < end; i++) {
+					dst[i] |= 0xFF000000;
+				}
+			}
+		}
+		return dst;
+	}
+
+	/**
+	 * 配列のピクセルを矩形の範囲に書き込みます.
+	 * 位置(x + i, y + j)には src[offset + j * scan + i] が書き込まれます。<br>
+	 * TYPE_INT_ARGBの画像はラスタへ配列のコピーで書き込まれます。<br>
+	 *
+	 * @param image 画像.<br>
+	 * @param x 範囲の左上.<br>
+	 * @param y 範囲の左上.<br>
+	 * @param w 範囲の幅.<br>
+	 * @param h 範囲の高さ.<br>
+	 * @param src 書き込むピクセル.<br>
+	 * @param offset 開始位置.<br>
+	 * @param scan 行の間隔.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 範囲が画像の外にはみ出す場合.<br>
+	 */
+	public static void setPixels(BufferedImage image, int x, int y, int w, int h, int[] src, int offset, int scan)
+			throws IndexOutOfBoundsException {
+		checkBounds(image, x, y, w, h);
+		if (image.getType() != BufferedImage.TYPE_INT_ARGB) {
+			image.setRGB(x, y, w, h, src, offset, scan);
+			return;
+		}
+		WritableRaster r = image.getRaster();
+		if (offset == 0 && (scan == w || h == 1) && src.length >= w * h) {
+			r.setDataElements(x, y, w, h, src);
+			return;
+		}
+		int[] row = rowBuffer(w);
+		for (int j = 0; j < h; j++) {
+			System.arraycopy(src, offset + j * scan, row, 0, w);
+			r.setDataElements(x, y + j, w, 1, row);
+		}
+	}
+
+	/**
+	 * 1行分のピクセルを読み込みます.
+	 *
+	 * @param image 画像.<br>
+	 * @param y 行.<br>
+	 * @param dst 格納先.nullの場合は新しい配列を作成します。<br>
+	 *
+	 * @return dst.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 行が画像の外の場合.<br>
+	 */
+	public static int[] getRow(BufferedImage image, int y, int[] dst) throws IndexOutOfBoundsException {
+		return getPixels(image, 0, y, image.getWidth(), 1, dst, 0, image.getWidth());
+	}
+
+	/**
+	 * 1行分のピクセルを書き込みます.
+	 *
+	 * @param image 画像.<br>
+	 * @param y 行.<br>
+	 * @param src 書き込むピクセル.画像の幅以上の長さが必要です。<br>
+	 *
+	 * @throws IndexOutOfBoundsException 行が画像の外の場合.<br>
+	 */
+	public static void setRow(BufferedImage image, int y, int[] src) throws IndexOutOfBoundsException {
+		setPixels(image, 0, y, image.getWidth(), 1, src, 0, image.getWidth());
+	}
+
+	/**
+	 * getPixelsとsetPixelsで行を経由するための、スレッドごとの作業用の配列です.
+	 */
+	private static final ThreadLocal<int[]> ROW = ThreadLocal.withInitial(() -> new int[0]);
+
+	private static int[] rowBuffer(int w) {
+		int[] row = ROW.get();
+		if (row.length < w) {
+			row = new int[w];
+			ROW.set(row);
+		}
+		return row;
+	}
+
+	private static void checkBounds(BufferedImage image, int x, int y, int w, int h) throws IndexOutOfBoundsException {
+		if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > image.getWidth() || y + h > image.getHeight()) {
+			throw new IndexOutOfBoundsException("pixel range is out of image : x=[" + x + "] y=[" + y + "] w=[" + w
+					+ "] h=[" + h + "] image=[" + image.getWidth() + "x" + image.getHeight() + "]");
+		}
 	}
 
 	/**
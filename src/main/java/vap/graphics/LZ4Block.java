@@ -0,0 +1,235 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.Arrays;
+
+/**
+ * LZ4のブロック形式による圧縮と展開です.
+ * <br>
+ * 出力はLZ4のブロック形式の仕様に従うため、他のLZ4の実装で展開できます。
+ * 圧縮は4バイトのハッシュによる貪欲な一致検索で、速度を優先します。<br>
+ * フレーム形式(マジックナンバーやチェックサム)は扱いません。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_18:14:50<br>
+ * @author Shinacho<br>
+ */
+final class LZ4Block {
+
+	private static final int MIN_MATCH = 4;
+	//最後の一致はブロックの終わりから12バイト以上前で始まり、最後の5バイトはリテラルでなければならない
+	private static final int MF_LIMIT = 12;
+	private static final int LAST_LITERALS = 5;
+	private static final int MAX_DISTANCE = 65535;
+	private static final int HASH_BITS = 14;
+
+	private LZ4Block() {
+	}
+
+	/**
+	 * 圧縮後の最大のバイト数を返します.
+	 *
+	 * @param n 圧縮前のバイト数.<br>
+	 *
+	 * @return 最大のバイト数.<br>
+	 */
+	static int maxCompressedLength(int n) {
+		return n + n / 255 + 16;
+	}
+
+	/**
+	 * 圧縮します.
+	 *
+	 * @param src 圧縮するデータ.<br>
+	 * @param srcOff 開始位置.<br>
+	 * @param srcLen バイト数.<br>
+	 * @param dst 出力先.maxCompressedLength(srcLen)バイト以上の空きが必要です。<br>
+	 * @param dstOff 出力の開始位置.<br>
+	 *
+	 * @return 出力したバイト数.<br>
+	 */
+	static int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff) {
+		int end = srcOff + srcLen;
+		int matchLimit = end - LAST_LITERALS;
+		int mfLimit = end - MF_LIMIT;
+		int d = dstOff;
+		int anchor = srcOff;
+		int s = srcOff;
+		if (srcLen >= MF_LIMIT + 1) {
+			int[] table = new int[1 << HASH_BITS];
+			Arrays.fill(table, -1);
+			s++;
+			//一致しない状態が続く場合は検索の間隔を広げ、圧縮できないデータで時間をかけない
+			int misses = 0;
+			while (s < mfLimit) {
+				int v = readInt(src, s);
+				int h = hash(v);
+				int ref = table[h];
+				table[h] = s;
+				if (ref < 0 || s - ref > MAX_DISTANCE || readInt(src, ref) != v) {
+					s += 1 + (misses++ >>> 6);
+					continue;
+				}
+				misses = 0;
+				//一致を後方へ伸ばす
+				while (s > anchor && ref > srcOff && src[s - 1] == src[ref - 1]) {
+					s--;
+					ref--;
+				}
+				//一致を前方へ伸ばす
+				int len = MIN_MATCH;
+				while (s + len < matchLimit && src[s + len] == src[ref + len]) {
+					len++;
+				}
+				d = writeSequence(src, anchor, s - anchor, s - ref, len, dst, d);
+				s += len;
+				anchor = s;
+				if (s < mfLimit) {
+					table[hash(readInt(src, s - 2))] = s - 2;
+				}
+			}
+		}
+		//残りは全てリテラル
+		int lit = end - anchor;
+		int token = d++;
+		if (lit >= 15) {
+			dst[token] = (byte) 0xF0;
+			d = writeLength(lit - 15, dst, d);
+		} else {
+			dst[token] = (byte) (lit << 4);
+		}
+		System.arraycopy(src, anchor, dst, d, lit);
+		return d + lit - dstOff;
+	}
+
+	private static int writeSequence(byte[] src, int litStart, int lit, int offset, int matchLen, byte[] dst, int d) {
+		int token = d++;
+		int t;
+		if (lit >= 15) {
+			t = 0xF0;
+			d = writeLength(lit - 15, dst, d);
+		} else {
+			t = lit << 4;
+		}
+		System.arraycopy(src, litStart, dst, d, lit);
+		d += lit;
+		dst[d++] = (byte) offset;
+		dst[d++] = (byte) (offset >>> 8);
+		int ml = matchLen - MIN_MATCH;
+		if (ml >= 15) {
+			t |= 0x0F;
+			d = writeLength(ml - 15, dst, d);
+		} else {
+			t |= ml;
+		}
+		dst[token] = (byte) t;
+		return d;
+	}
+
+	private static int writeLength(int n, byte[] dst, int d) {
+		while (n >= 255) {
+			dst[d++] = (byte) 255;
+			n -= 255;
+		}
+		dst[d++] = (byte) n;
+		return d;
+	}
+
+	/**
+	 * 展開します.
+	 *
+	 * @param src 圧縮されたデータ.<br>
+	 * @param srcOff 開始位置.<br>
+	 * @param srcLen バイト数.<br>
+	 * @param dst 出力先.<br>
+	 * @param dstOff 出力の開始位置.<br>
+	 * @param dstLen 展開後のバイト数.<br>
+	 *
+	 * @throws ContentsIOException データが壊れている場合.<br>
+	 */
+	static void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen)
+			throws ContentsIOException {
+		int s = srcOff;
+		int sEnd = srcOff + srcLen;
+		int d = dstOff;
+		int dEnd = dstOff + dstLen;
+		try {
+			while (true) {
+				int token = src[s++] & 0xFF;
+				int lit = token >>> 4;
+				if (lit == 15) {
+					int b;
+					do {
+						b = src[s++] & 0xFF;
+						lit += b;
+					} while (b == 255);
+				}
+				if (lit > sEnd - s || lit > dEnd - d) {
+					throw new ContentsIOException("LZ4 : literal out of range : pos=[" + s + "]");
+				}
+				System.arraycopy(src, s, dst, d, lit);
+				s += lit;
+				d += lit;
+				if (s == sEnd) {
+					break;
+				}
+				int offset = (src[s] & 0xFF) | (src[s + 1] & 0xFF) << 8;
+				s += 2;
+				int len = token & 0x0F;
+				if (len == 15) {
+					int b;
+					do {
+						b = src[s++] & 0xFF;
+						len += b;
+					} while (b == 255);
+				}
+				len += MIN_MATCH;
+				int ref = d - offset;
+				if (offset == 0 || ref < dstOff || len > dEnd - d) {
+					throw new ContentsIOException("LZ4 : match out of range : pos=[" + s + "]");
+				}
+				//一致が出力と重なる場合は、複製済みの範囲を倍々に広げながら複製する
+				while (len > 0) {
+					int n = Math.min(len, d - ref);
+					System.arraycopy(dst, ref, dst, d, n);
+					d += n;
+					len -= n;
+				}
+			}
+		} catch (ArrayIndexOutOfBoundsException ex) {
+			throw new ContentsIOException(ex);
+		}
+		if (d != dEnd) {
+			throw new ContentsIOException("LZ4 : length mismatch : expected=[" + dstLen + "] actual=[" + (d - dstOff) + "]");
+		}
+	}
+
+	private static int readInt(byte[] b, int i) {
+		return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | b[i + 3] << 24;
+	}
+
+	private static int hash(int v) {
+		return (v * -1640531535) >>> (32 - HASH_BITS);
+	}
+}
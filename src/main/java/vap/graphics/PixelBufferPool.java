@@ -0,0 +1,263 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ピクセルの配列と画像を再利用するためのプールです.
+ * <br>
+ * 連続したキャプチャやフィルタの処理で毎回配列や画像を確保するとGCの負荷が高くなるため、
+ * 同じ大きさの配列や画像を使い回します。<br>
+ * acquireIntsやacquireImageで取得したLeaseをcloseするとプールに返却されます。try-with-resources構文で使用してください。<br>
+ * プールに保持する配列と画像のバイト数の合計には上限があり、上限を超える場合は
+ * 最も長く取得も返却もされていない大きさのものから破棄されます(LRU)。<br>
+ * 取得した配列や画像の内容は不定です。このクラスはスレッドセーフです。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_20:08:32<br>
+ * @author Shinacho<br>
+ */
+public final class PixelBufferPool {
+
+	/**
+	 * プールから取得した配列または画像です.
+	 * closeするとプールに返却され、その後は使用できません。<br>
+	 *
+	 * @param <T> 配列または画像の型.<br>
+	 */
+	public static final class Lease<T> implements AutoCloseable {
+
+		private T value;
+		private final Consumer<T> release;
+
+		private Lease(T value, Consumer<T> release) {
+			this.value = value;
+			this.release = release;
+		}
+
+		/**
+		 * 取得した配列または画像を返します.
+		 *
+		 * @return 配列または画像.<br>
+		 *
+		 * @throws IllegalStateException 返却済みの場合.<br>
+		 */
+		public T get() throws IllegalStateException {
+			if (value == null) {
+				throw new IllegalStateException("lease is closed");
+			}
+			return value;
+		}
+
+		@Override
+		public void close() {
+			if (value != null) {
+				release.accept(value);
+				value = null;
+			}
+		}
+	}
+
+	private static volatile PixelBufferPool defaultPool;
+
+	/**
+	 * 既定のプールを返します.上限は64MBです.
+	 *
+	 * @return 既定のプール.<br>
+	 */
+	public static PixelBufferPool getDefault() {
+		PixelBufferPool p = defaultPool;
+		if (p == null) {
+			synchronized (PixelBufferPool.class) {
+				p = defaultPool;
+				if (p == null) {
+					defaultPool = p = new PixelBufferPool(64L * 1024 * 1024);
+				}
+			}
+		}
+		return p;
+	}
+
+	private final long maxBytes;
+	/**
+	 * 大きさごとの保持しているオブジェクトです.アクセス順で、先頭が最も長く使用されていない大きさです。
+	 * 配列は長さ(Integer)、画像は幅と高さ(Long)をキーとします。
+	 */
+	private final LinkedHashMap<Object, ArrayDeque<Object>> buckets = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * プールを作成します.
+	 *
+	 * @param maxBytes 保持する配列と画像のバイト数の合計の上限.<br>
+	 *
+	 * @throws IllegalArgumentException maxBytesが負の場合.<br>
+	 */
+	public PixelBufferPool(long maxBytes) throws IllegalArgumentException {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("PixelBufferPool : maxBytes=[" + maxBytes + "]");
+		}
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * 指定された長さのint配列を取得します.
+	 *
+	 * @param length 配列の長さ.<br>
+	 *
+	 * @return 長さがlengthの配列のLease.<br>
+	 */
+	public Lease<int[]> acquireInts(int length) {
+		int[] a;
+		synchronized (this) {
+			a = (int[]) poll(Integer.valueOf(length));
+			if (a != null) {
+				bytes -= (long) length * 4;
+				hitCount++;
+			} else {
+				missCount++;
+			}
+		}
+		if (a == null) {
+			a = new int[length];
+		}
+		return new Lease<>(a, this::release);
+	}
+
+	/**
+	 * 指定された大きさのTYPE_INT_ARGBの画像を取得します.
+	 *
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 *
+	 * @return 画像のLease.<br>
+	 */
+	public Lease<BufferedImage> acquireImage(int w, int h) {
+		BufferedImage i;
+		synchronized (this) {
+			i = (BufferedImage) poll(Long.valueOf(key(w, h)));
+			if (i != null) {
+				bytes -= (long) w * h * 4;
+				hitCount++;
+			} else {
+				missCount++;
+			}
+		}
+		if (i == null) {
+			i = ImageFactory.INT_ARGB.newImage(w, h);
+		}
+		return new Lease<>(i, this::release);
+	}
+
+	private static long key(int w, int h) {
+		return (long) w << 32 | (h & 0xFFFFFFFFL);
+	}
+
+	private static long bytesOf(Object o) {
+		if (o instanceof int[] a) {
+			return (long) a.length * 4;
+		}
+		BufferedImage i = (BufferedImage) o;
+		return (long) i.getWidth() * i.getHeight() * 4;
+	}
+
+	private Object poll(Object key) {
+		ArrayDeque<Object> q = buckets.get(key);
+		if (q == null) {
+			return null;
+		}
+		Object o = q.pollLast();
+		if (q.isEmpty()) {
+			buckets.remove(key);
+		}
+		return o;
+	}
+
+	private void release(int[] a) {
+		release(Integer.valueOf(a.length), a);
+	}
+
+	private void release(BufferedImage i) {
+		release(Long.valueOf(key(i.getWidth(), i.getHeight())), i);
+	}
+
+	private synchronized void release(Object key, Object o) {
+		long b = bytesOf(o);
+		if (b > maxBytes) {
+			return;
+		}
+		ArrayDeque<Object> q = buckets.computeIfAbsent(key, k -> new ArrayDeque<>());
+		q.addLast(o);
+		bytes += b;
+		//返却された大きさは最も新しく使用されたため、それ以外の古い大きさから破棄される
+		Iterator<Map.Entry<Object, ArrayDeque<Object>>> it = buckets.entrySet().iterator();
+		while (bytes > maxBytes) {
+			Map.Entry<Object, ArrayDeque<Object>> e = it.next();
+			ArrayDeque<Object> eq = e.getValue();
+			while (bytes > maxBytes && !eq.isEmpty()) {
+				bytes -= bytesOf(eq.pollFirst());
+			}
+			if (eq.isEmpty()) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * 保持している配列と画像を全て破棄します.
+	 */
+	public synchronized void clear() {
+		buckets.clear();
+		bytes = 0;
+	}
+
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "PixelBufferPool{" + "bytes=" + bytes + ", maxBytes=" + maxBytes
+				+ ", hitCount=" + hitCount + ", missCount=" + missCount + '}';
+	}
+}
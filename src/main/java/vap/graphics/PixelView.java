@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * 画像のピクセルを行の帯(ストリップ)ごとにint配列へ読み込むためのビューです.
+ * <br>
+ * ストリップの配列はPixelBufferPoolから借りるため、同じ大きさの画像を繰り返し処理しても新しい配列は確保されません。
+ * 使い終わったらcloseで配列を返却してください。<br>
+ * ピクセルはImageUtil.getPixelsで読み込まれるため、画像のJava2Dによる描画の高速化は維持されます。<br>
+ * 現在のストリップの位置(x, y)のピクセルは data[index(x, y)] にあります。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_12:20:41<br>
+ * @author Shinacho<br>
+ */
+final class PixelView implements AutoCloseable {
+
+	private final BufferedImage image;
+	private final PixelBufferPool.Lease<int[]> lease;
+	final int width;
+	final int height;
+	/**
+	 * 1つのストリップの最大の行数です.
+	 */
+	final int stripRows;
+	/**
+	 * 現在のストリップのピクセルです.
+	 */
+	final int[] data;
+	/**
+	 * 現在のストリップの先頭の行です.
+	 */
+	int y0;
+	/**
+	 * 現在のストリップの行数です.nextを呼び出す前は0です。
+	 */
+	int rows;
+
+	private PixelView(BufferedImage image, int stripRows) {
+		this.image = image;
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+		this.stripRows = Math.max(1, Math.min(stripRows, height));
+		this.lease = PixelBufferPool.getDefault().acquireInts(this.stripRows * width);
+		this.data = lease.get();
+	}
+
+	/**
+	 * BandExecutor.bandHeightの行数ごとに画像を読み込むビューを作成します.
+	 *
+	 * @param image 画像.<br>
+	 *
+	 * @return nextで最初のストリップを読み込むビュー.<br>
+	 */
+	static PixelView strips(BufferedImage image) {
+		return new PixelView(image, BandExecutor.bandHeight(image.getWidth()));
+	}
+
+	/**
+	 * 画像全体を1つのストリップとして読み込んだビューを作成します.
+	 * 画像全体の配列が必要な処理で使用します。<br>
+	 *
+	 * @param image 画像.<br>
+	 *
+	 * @return 画像全体を読み込んだビュー.<br>
+	 */
+	static PixelView whole(BufferedImage image) {
+		PixelView v = new PixelView(image, image.getHeight());
+		v.next();
+		return v;
+	}
+
+	/**
+	 * 次のストリップを読み込みます.
+	 *
+	 * @return 読み込んだ場合true.全ての行を読み込み終えている場合はfalse.<br>
+	 */
+	boolean next() {
+		y0 += rows;
+		if (y0 >= height) {
+			rows = 0;
+			return false;
+		}
+		rows = Math.min(stripRows, height - y0);
+		ImageUtil.getPixels(image, 0, y0, width, rows, data, 0, width);
+		return true;
+	}
+
+	/**
+	 * 現在のストリップ内の位置のインデックスを返します.
+	 *
+	 * @param x X座標.<br>
+	 * @param y 画像内のY座標.現在のストリップに含まれる必要があります。<br>
+	 *
+	 * @return dataのインデックス.<br>
+	 */
+	int index(int x, int y) {
+		return (y - y0) * width + x;
+	}
+
+	/**
+	 * 配列をPixelBufferPoolに返却します.その後はdataを使用できません。
+	 */
+	@Override
+	public void close() {
+		lease.close();
+	}
+}
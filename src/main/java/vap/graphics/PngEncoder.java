@@ -0,0 +1,461 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 圧縮レベルとフィルタを指定できるPNGエンコーダです.
+ * <br>
+ * 画像を数十行ごとのチャンクに分け、行のフィルタ処理とdeflateによる圧縮をチャンクごとに並列に行います。
+ * 各チャンクは直前のチャンクの末尾32KBを辞書として圧縮され、SYNC_FLUSHで区切られたdeflateブロックとして連結されます(pigzと同じ方式)。
+ * そのため、出力は通常のPNGデコーダで読み込むことができ、圧縮率は逐次処理の場合とほとんど変わりません。<br>
+ * 完全に不透明な画像はアルファチャンネルを持たないRGBのPNGとして出力されます。<br>
+ * 並列化の効果はコア数に依存し、1コアの環境ではImageIOと同程度の速度になるため、
+ * RasterImage.saveToやImageUtil.saveは引き続きImageIOを使用します。
+ * このクラスはRasterImage.saveTo(File, PngEncoder)やImageSaveServiceで明示的に指定して使用します。<br>
+ * このクラスのインスタンスは不変で、複数のスレッドから同時に使用できます。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_18:58:06<br>
+ * @author Shinacho<br>
+ */
+public final class PngEncoder {
+
+	/**
+	 * PNGの行フィルタの選択方法です.
+	 */
+	public enum Filter {
+		/**
+		 * フィルタを使用しません.最も高速ですが圧縮率は低くなります.
+		 */
+		NONE,
+		/**
+		 * 左のピクセルとの差を使用します.写真以外の画像で高速かつ効果的です.
+		 */
+		SUB,
+		/**
+		 * 上のピクセルとの差を使用します.
+		 */
+		UP,
+		/**
+		 * 左と上のピクセルの平均との差を使用します.
+		 */
+		AVERAGE,
+		/**
+		 * Paeth予測との差を使用します.
+		 */
+		PAETH,
+		/**
+		 * 行ごとに、差の絶対値の合計が最小になるフィルタを選択します.最も圧縮率が高くなりますが、低速です.
+		 */
+		ADAPTIVE;
+	}
+
+	/**
+	 * 1チャンクあたりのフィルタ後のバイト数の目安です.
+	 */
+	private static final int CHUNK_BYTES = 128 * 1024;
+	/**
+	 * deflateの辞書の最大サイズです.
+	 */
+	private static final int DICTIONARY_BYTES = 32 * 1024;
+	private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+	private static final int COLOR_TYPE_RGB = 2;
+	private static final int COLOR_TYPE_RGBA = 6;
+
+	/**
+	 * 圧縮率を優先する設定です.ImageIOの既定の設定よりも小さくなりますが、1コアの環境ではImageIOよりも低速です。
+	 */
+	public static final PngEncoder QUALITY = new PngEncoder(Deflater.DEFAULT_COMPRESSION, Filter.ADAPTIVE);
+	/**
+	 * 速度を優先する設定です.スクリーンショットの保存などに使用します。
+	 */
+	public static final PngEncoder FAST = new PngEncoder(Deflater.BEST_SPEED, Filter.SUB);
+
+	private final int level;
+	private final Filter filter;
+	private final BandExecutor executor;
+
+	/**
+	 * BandExecutorの既定のインスタンスで並列に処理するエンコーダを作成します.
+	 *
+	 * @param level deflateの圧縮レベル.0から9、またはDeflater.DEFAULT_COMPRESSION.<br>
+	 * @param filter 行フィルタ.<br>
+	 *
+	 * @throws IllegalArgumentException 圧縮レベルが不正な場合.<br>
+	 */
+	public PngEncoder(int level, Filter filter) throws IllegalArgumentException {
+		this(level, filter, null);
+	}
+
+	/**
+	 * エンコーダを作成します.
+	 *
+	 * @param level deflateの圧縮レベル.0から9、またはDeflater.DEFAULT_COMPRESSION.<br>
+	 * @param filter 行フィルタ.<br>
+	 * @param executor 並列処理に使用するエグゼキュータ.nullの場合はBandExecutorの既定のインスタンス。<br>
+	 *
+	 * @throws IllegalArgumentException 圧縮レベルが不正な場合.<br>
+	 */
+	public PngEncoder(int level, Filter filter, BandExecutor executor) throws IllegalArgumentException {
+		if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+			throw new IllegalArgumentException("PngEncoder : level=[" + level + "]");
+		}
+		if (filter == null) {
+			throw new IllegalArgumentException("PngEncoder : filter is null");
+		}
+		this.level = level;
+		this.filter = filter;
+		this.executor = executor;
+	}
+
+	/**
+	 * 画像をPNGファイルに書き込みます.
+	 *
+	 * @param image 画像.<br>
+	 * @param f 書き込むファイル.上書きされます。<br>
+	 *
+	 * @throws ContentsIOException 書き込めない場合.<br>
+	 */
+	public void write(BufferedImage image, File f) throws ContentsIOException {
+		try (OutputStream out = new FileOutputStream(f)) {
+			encode(image, out);
+		} catch (IOException ex) {
+			throw new ContentsIOException(ex);
+		}
+	}
+
+	/**
+	 * 画像をPNGとして出力します.
+	 *
+	 * @param image 画像.<br>
+	 * @param out 出力先.このメソッドは出力先を閉じません。<br>
+	 *
+	 * @throws IOException 出力できない場合.<br>
+	 */
+	public void encode(BufferedImage image, OutputStream out) throws IOException {
+		//画像全体の配列が必要なため、PixelBufferPoolから借りた配列に読み込む
+		try (PixelView v = PixelView.whole(image)) {
+			encode(v.data, 0, v.width, v.width, v.height, out);
+		}
+	}
+
+	/**
+	 * ARGBのピクセルをPNGとして出力します.
+	 *
+	 * @param pix ピクセル.位置(x, y)のピクセルはpix[offset + y * stride + x]です。<br>
+	 * @param offset 左上のピクセルの位置.<br>
+	 * @param stride 行の間隔.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param out 出力先.このメソッドは出力先を閉じません。<br>
+	 *
+	 * @throws IOException 出力できない場合.<br>
+	 */
+	public void encode(int[] pix, int offset, int stride, int w, int h, OutputStream out) throws IOException {
+		if (w <= 0 || h <= 0) {
+			throw new IllegalArgumentException("PngEncoder : w=[" + w + "] h=[" + h + "]");
+		}
+		BandExecutor ex = executor == null ? BandExecutor.getDefault() : executor;
+		int bpp = isOpaque(pix, offset, stride, w, h) ? 3 : 4;
+		int rowBytes = w * bpp + 1;
+		//1.全ての行をフィルタ処理する
+		byte[] filtered = new byte[Math.multiplyExact(rowBytes, h)];
+		ex.forEachBand(w, h, (startY, endY) -> filterRows(pix, offset, stride, w, bpp, startY, endY, filtered));
+		//2.チャンクごとに圧縮する
+		int chunkRows = Math.max(1, CHUNK_BYTES / rowBytes);
+		int chunks = (h + chunkRows - 1) / chunkRows;
+		byte[][] compressed = new byte[chunks][];
+		int[] adler = new int[chunks];
+		ex.forEachBand(w, h, chunkRows, (startY, endY) -> {
+			for (int y = startY; y < endY; y += chunkRows) {
+				int i = y / chunkRows;
+				int from = y * rowBytes;
+				int to = Math.min(endY, y + chunkRows) * rowBytes;
+				compressed[i] = deflate(filtered, from, to, i == chunks - 1);
+				Adler32 a = new Adler32();
+				a.update(filtered, from, to - from);
+				adler[i] = (int) a.getValue();
+			}
+		});
+		//3.チャンクを連結して出力する
+		int adlerAll = 1;
+		for (int i = 0; i < chunks; i++) {
+			int len = Math.min(chunkRows, h - i * chunkRows) * rowBytes;
+			adlerAll = adler32Combine(adlerAll, adler[i], len);
+		}
+		DataOutputStream d = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+		d.write(SIGNATURE);
+		ByteArrayOutputStream ihdr = new ByteArrayOutputStream(13);
+		DataOutputStream hd = new DataOutputStream(ihdr);
+		hd.writeInt(w);
+		hd.writeInt(h);
+		hd.writeByte(8);
+		hd.writeByte(bpp == 4 ? COLOR_TYPE_RGBA : COLOR_TYPE_RGB);
+		hd.writeByte(0);
+		hd.writeByte(0);
+		hd.writeByte(0);
+		writeChunk(d, "IHDR", ihdr.toByteArray(), null, null);
+		for (int i = 0; i < chunks; i++) {
+			byte[] head = i == 0 ? zlibHeader() : null;
+			byte[] tail = i == chunks - 1
+					? new byte[]{(byte) (adlerAll >>> 24), (byte) (adlerAll >>> 16), (byte) (adlerAll >>> 8), (byte) adlerAll}
+					: null;
+			writeChunk(d, "IDAT", compressed[i], head, tail);
+		}
+		writeChunk(d, "IEND", new byte[0], null, null);
+		d.flush();
+	}
+
+	private static boolean isOpaque(int[] pix, int offset, int stride, int w, int h) {
+		for (int y = 0; y < h; y++) {
+			int and = 0xFF000000;
+			for (int i = offset + y * stride, end = i + w; i < end; i++) {
+				and &= pix[i];
+			}
+			if (and != 0xFF000000) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void filterRows(int[] pix, int offset, int stride, int w, int bpp, int startY, int endY, byte[] out) {
+		int n = w * bpp;
+		byte[] prev = new byte[n];
+		byte[] cur = new byte[n];
+		byte[][] work = filter == Filter.ADAPTIVE ? new byte[5][n] : null;
+		if (startY > 0) {
+			toBytes(pix, offset + (startY - 1) * stride, w, bpp, prev);
+		}
+		for (int y = startY; y < endY; y++) {
+			toBytes(pix, offset + y * stride, w, bpp, cur);
+			int pos = y * (n + 1);
+			if (filter == Filter.ADAPTIVE) {
+				int best = 0;
+				long bestSum = Long.MAX_VALUE;
+				for (int f = 0; f < 5; f++) {
+					applyFilter(f, cur, prev, bpp, work[f], 0);
+					long sum = 0;
+					byte[] row = work[f];
+					for (int i = 0; i < n; i++) {
+						sum += Math.abs(row[i]);
+					}
+					if (sum < bestSum) {
+						bestSum = sum;
+						best = f;
+					}
+				}
+				out[pos] = (byte) best;
+				System.arraycopy(work[best], 0, out, pos + 1, n);
+			} else {
+				int f = filter.ordinal();
+				out[pos] = (byte) f;
+				applyFilter(f, cur, prev, bpp, out, pos + 1);
+			}
+			byte[] t = prev;
+			prev = cur;
+			cur = t;
+		}
+	}
+
+	private static void toBytes(int[] pix, int from, int w, int bpp, byte[] dst) {
+		if (bpp == 4) {
+			for (int x = 0, j = 0; x < w; x++, j += 4) {
+				int p = pix[from + x];
+				dst[j] = (byte) (p >>> 16);
+				dst[j + 1] = (byte) (p >>> 8);
+				dst[j + 2] = (byte) p;
+				dst[j + 3] = (byte) (p >>> 24);
+			}
+		} else {
+			for (int x = 0, j = 0; x < w; x++, j += 3) {
+				int p = pix[from + x];
+				dst[j] = (byte) (p >>> 16);
+				dst[j + 1] = (byte) (p >>> 8);
+				dst[j + 2] = (byte) p;
+			}
+		}
+	}
+
+	private static void applyFilter(int f, byte[] cur, byte[] prev, int bpp, byte[] dst, int d) {
+		int n = cur.length;
+		switch (f) {
+			case 0 ->
+				System.arraycopy(cur, 0, dst, d, n);
+			case 1 -> {
+				System.arraycopy(cur, 0, dst, d, bpp);
+				for (int i = bpp; i < n; i++) {
+					dst[d + i] = (byte) (cur[i] - cur[i - bpp]);
+				}
+			}
+			case 2 -> {
+				for (int i = 0; i < n; i++) {
+					dst[d + i] = (byte) (cur[i] - prev[i]);
+				}
+			}
+			case 3 -> {
+				for (int i = 0; i < bpp; i++) {
+					dst[d + i] = (byte) (cur[i] - ((prev[i] & 0xFF) >>> 1));
+				}
+				for (int i = bpp; i < n; i++) {
+					dst[d + i] = (byte) (cur[i] - (((cur[i - bpp] & 0xFF) + (prev[i] & 0xFF)) >>> 1));
+				}
+			}
+			default -> {
+				for (int i = 0; i < bpp; i++) {
+					dst[d + i] = (byte) (cur[i] - prev[i]);
+				}
+				for (int i = bpp; i < n; i++) {
+					dst[d + i] = (byte) (cur[i] - paeth(cur[i - bpp] & 0xFF, prev[i] & 0xFF, prev[i - bpp] & 0xFF));
+				}
+			}
+		}
+	}
+
+	private static int paeth(int a, int b, int c) {
+		int p = a + b - c;
+		int pa = Math.abs(p - a);
+		int pb = Math.abs(p - b);
+		int pc = Math.abs(p - c);
+		if (pa <= pb && pa <= pc) {
+			return a;
+		}
+		return pb <= pc ? b : c;
+	}
+
+	private byte[] deflate(byte[] src, int from, int to, boolean last) {
+		Deflater def = new Deflater(level, true);
+		try {
+			//直前のチャンクの末尾を辞書にして、チャンクの境界での圧縮率の低下を防ぐ
+			int dict = Math.min(DICTIONARY_BYTES, from);
+			if (dict > 0) {
+				def.setDictionary(src, from - dict, dict);
+			}
+			def.setInput(src, from, to - from);
+			ByteArrayOutputStream out = new ByteArrayOutputStream((to - from) / 2 + 64);
+			byte[] buf = new byte[64 * 1024];
+			if (last) {
+				def.finish();
+				while (!def.finished()) {
+					out.write(buf, 0, def.deflate(buf));
+				}
+			} else {
+				int n;
+				do {
+					n = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+					out.write(buf, 0, n);
+				} while (n == buf.length);
+			}
+			return out.toByteArray();
+		} finally {
+			def.end();
+		}
+	}
+
+	private byte[] zlibHeader() {
+		//CMF : deflate, 32KBのウインドウ. FLG : 圧縮レベルのヒントとチェックビット
+		int cmf = 0x78;
+		int levelHint = level == Deflater.DEFAULT_COMPRESSION ? 2 : level <= 1 ? 0 : level <= 5 ? 1 : level == 6 ? 2 : 3;
+		int flg = levelHint << 6;
+		flg += 31 - (cmf * 256 + flg) % 31;
+		return new byte[]{(byte) cmf, (byte) flg};
+	}
+
+	/**
+	 * 2つの連続するデータのAdler-32を結合します.
+	 *
+	 * @param adler1 前のデータのAdler-32.<br>
+	 * @param adler2 後のデータのAdler-32.<br>
+	 * @param len2 後のデータのバイト数.<br>
+	 *
+	 * @return 連結したデータのAdler-32.<br>
+	 */
+	static int adler32Combine(int adler1, int adler2, long len2) {
+		final int base = 65521;
+		long rem = len2 % base;
+		long sum1 = adler1 & 0xFFFF;
+		long sum2 = rem * sum1 % base;
+		sum1 += (adler2 & 0xFFFF) + base - 1;
+		sum2 += ((adler1 >>> 16) & 0xFFFF) + ((adler2 >>> 16) & 0xFFFF) + base - rem;
+		if (sum1 >= base) {
+			sum1 -= base;
+		}
+		if (sum1 >= base) {
+			sum1 -= base;
+		}
+		if (sum2 >= (base << 1)) {
+			sum2 -= (base << 1);
+		}
+		if (sum2 >= base) {
+			sum2 -= base;
+		}
+		return (int) (sum1 | (sum2 << 16));
+	}
+
+	private static void writeChunk(DataOutputStream d, String type, byte[] data, byte[] head, byte[] tail)
+			throws IOException {
+		int len = data.length + (head == null ? 0 : head.length) + (tail == null ? 0 : tail.length);
+		byte[] t = type.getBytes(StandardCharsets.US_ASCII);
+		CRC32 crc = new CRC32();
+		crc.update(t);
+		d.writeInt(len);
+		d.write(t);
+		if (head != null) {
+			crc.update(head);
+			d.write(head);
+		}
+		crc.update(data);
+		d.write(data);
+		if (tail != null) {
+			crc.update(tail);
+			d.write(tail);
+		}
+		d.writeInt((int) crc.getValue());
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public Filter getFilter() {
+		return filter;
+	}
+
+	@Override
+	public String toString() {
+		return "PngEncoder{" + "level=" + level + ", filter=" + filter + '}';
+	}
+}
@@ -27,7 +27,6 @@ import java.awt.AWTException;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
-import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.Robot;
 import java.awt.Shape;
@@ -39,19 +38,19 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
-import static vap.graphics.ImageUtil.setPixel2D;
-import static vap.graphics.ImageUtil.getPixel2D;
 import vap.graphics.RasterImage.Raster.Pixel;
 
 /**
@@ -87,10 +86,11 @@ public class RasterImage implements Cloneable {
 		}
 
 		public Raster set(UnaryOperator<Pixel> u) {
-			Pixel[][] res = new Pixel[getHeight()][];
+			Pixel[][] res = new Pixel[data.length][];
 			Raster r = new Raster();
-			for (int y = 0; y < getHeight(); y++) {
-				for (int x = 0; x < getWidth(); x++) {
+			for (int y = 0; y < data.length; y++) {
+				res[y] = new Pixel[data[y].length];
+				for (int x = 0; x < data[y].length; x++) {
 					res[y][x] = u.apply(this.data[y][x]);
 				}
 			}
@@ -98,11 +98,31 @@ public class RasterImage implements Cloneable {
 			return r;
 		}
 
+		/**
+		 * 全てのピクセルのARGBを変換します.
+		 * このメソッドはPixelを新しく作成せず、このRasterのピクセルを直接更新します。<br>
+		 *
+		 * @param u ARGBを変換する処理.<br>
+		 *
+		 * @return このRaster.<br>
+		 */
+		public Raster setARGB(IntUnaryOperator u) {
+			for (Pixel[] row : data) {
+				for (Pixel p : row) {
+					p.value = u.applyAsInt(p.value);
+				}
+			}
+			return this;
+		}
+
 		public RasterImage updateImage() {
 			return RasterImage.this.updateImage(this);
 		}
 
 		public RasterImage newImage() {
+			if (data.length != getHeight() || data[0].length != getWidth()) {
+				return new RasterImage(data[0].length, data.length).updateImage(this);
+			}
 			return RasterImage.this.clone().updateImage(this);
 		}
 
@@ -118,9 +138,7 @@ public class RasterImage implements Cloneable {
 			}
 
 			if (angle % 90 == 0) {
-				for (int i = 0; i < (int) (angle / 90); i++) {
-					data = rotate(data);
-				}
+				data = rotate(data, (int) (angle / 90));
 				return this;
 			} else {
 				this.data = RasterImage.this.rotate(angle).asRaster().data;
@@ -129,14 +147,24 @@ public class RasterImage implements Cloneable {
 
 		}
 
-		private static Pixel[][] rotate(Pixel[][] p) {
+		//時計回りにquarterTurns * 90度回転する。
+		private static Pixel[][] rotate(Pixel[][] p, int quarterTurns) {
 			int n = p.length;
 			int m = p[0].length;
-			Pixel[][] res = new Pixel[m][n];
-
+			int k = RightAngleTransform.normalize(quarterTurns);
+			Pixel[][] res = k % 2 == 0 ? new Pixel[n][m] : new Pixel[m][n];
 			for (int i = 0; i < n; i++) {
 				for (int j = 0; j < m; j++) {
-					res[j][n - 1 - i] = p[i][j];
+					switch (k) {
+						case 0 ->
+							res[i][j] = p[i][j];
+						case 1 ->
+							res[j][n - 1 - i] = p[i][j];
+						case 2 ->
+							res[n - 1 - i][m - 1 - j] = p[i][j];
+						default ->
+							res[m - 1 - j][i] = p[i][j];
+					}
 				}
 			}
 			return res;
@@ -165,7 +193,12 @@ public class RasterImage implements Cloneable {
 		@Override
 		public int hashCode() {
 			int hash = 5;
-			hash = 29 * hash + Arrays.deepHashCode(this.data);
+			for (Pixel[] row : data) {
+				hash = 29 * hash + row.length;
+				for (Pixel p : row) {
+					hash = 31 * hash + p.value;
+				}
+			}
 			return hash;
 		}
 
@@ -181,7 +214,22 @@ public class RasterImage implements Cloneable {
 				return false;
 			}
 			final Raster other = (Raster) obj;
-			return Arrays.deepEquals(this.data, other.data);
+			if (this.data.length != other.data.length) {
+				return false;
+			}
+			for (int y = 0; y < data.length; y++) {
+				Pixel[] a = this.data[y];
+				Pixel[] b = other.data[y];
+				if (a.length != b.length) {
+					return false;
+				}
+				for (int x = 0; x < a.length; x++) {
+					if (a[x].value != b[x].value) {
+						return false;
+					}
+				}
+			}
+			return true;
 		}
 
 		@Override
@@ -206,12 +254,12 @@ public class RasterImage implements Cloneable {
 			}
 
 			public Pixel to透明() {
-				this.value = ARGBColor.toARGB(getR(), getG(), getB(), ARGBColor.ALPHA_TRANSPARENT);
+				this.value = ARGBColor.withAlpha(value, ARGBColor.ALPHA_TRANSPARENT);
 				return this;
 			}
 
 			public Pixel to不透明() {
-				this.value = ARGBColor.toARGB(getR(), getG(), getB(), ARGBColor.ALPHA_OPAQUE);
+				this.value = ARGBColor.withAlpha(value, ARGBColor.ALPHA_OPAQUE);
 				return this;
 			}
 
@@ -272,46 +320,22 @@ public class RasterImage implements Cloneable {
 			}
 
 			public Pixel setA(int v) {
-				if (v > 255) {
-					v = 255;
-				}
-				if (v < 0) {
-					v = 0;
-				}
-				this.value = ARGBColor.toARGB(getR(), getG(), getB(), v);
+				this.value = ARGBColor.withAlpha(value, ARGBColor.clamp(v));
 				return this;
 			}
 
 			public Pixel setR(int v) {
-				if (v > 255) {
-					v = 255;
-				}
-				if (v < 0) {
-					v = 0;
-				}
-				this.value = ARGBColor.toARGB(v, getG(), getB(), getA());
+				this.value = ARGBColor.withRed(value, ARGBColor.clamp(v));
 				return this;
 			}
 
 			public Pixel setG(int v) {
-				if (v > 255) {
-					v = 255;
-				}
-				if (v < 0) {
-					v = 0;
-				}
-				this.value = ARGBColor.toARGB(getR(), v, getB(), getA());
+				this.value = ARGBColor.withGreen(value, ARGBColor.clamp(v));
 				return this;
 			}
 
 			public Pixel setB(int v) {
-				if (v > 255) {
-					v = 255;
-				}
-				if (v < 0) {
-					v = 0;
-				}
-				this.value = ARGBColor.toARGB(getR(), getG(), v, getA());
+				this.value = ARGBColor.withBlue(value, ARGBColor.clamp(v));
 				return this;
 			}
 
@@ -340,8 +364,9 @@ public class RasterImage implements Cloneable {
 			}
 
 			public Pixel average() {
-				int a = getR() + getG() + getB() / 3;
-				return to(a, a, a, getA());
+				int a = ARGBColor.getRGBAverage(value);
+				this.value = ARGBColor.toARGBUnchecked(getA(), a, a, a);
+				return this;
 			}
 
 			public boolean is完全透明() {
@@ -391,35 +416,239 @@ public class RasterImage implements Cloneable {
 
 	}
 
+	//rの大きさが画像と異なる場合(90度回転した場合など)は、rと同じ大きさの画像に置き換える。
 	public RasterImage updateImage(Raster r) {
-		ImageUtil.setPixel2D(image, r.getPixel2D());
+		prepareWrite();
+		contentChanged();
+		int[][] pix = r.getPixel2D();
+		if (pix.length != getHeight() || pix[0].length != getWidth()) {
+			image = ImageUtil.newImage(pix[0].length, pix.length);
+		}
+		ImageUtil.setPixel2D(image, pix);
 		return this;
 	}
 
+	/**
+	 * コピーオンライトで画像を共有しているインスタンスの数です.
+	 * countはこのオブジェクトのロックで保護されます。
+	 */
+	private static final class Share {
+
+		private int count;
+
+		private Share(int count) {
+			this.count = count;
+		}
+	}
+
 	protected BufferedImage image;
+	/**
+	 * cloneによってimageを共有しているインスタンスのグループです.共有していない場合はnull。
+	 * 共有している間は書き込みの前にprepareWriteで複製します。
+	 */
+	private volatile Share share;
+	/**
+	 * 内容から算出してキャッシュした値です.
+	 * 算出を始めたときのcontentVersionを持ち、現在のcontentVersionと異なる場合は無効です。
+	 */
+	private static final class Cached {
+
+		private final int version;
+		private final long value;
+
+		private Cached(int version, long value) {
+			this.version = version;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * 内容の版です.contentChangedで増加します。
+	 */
+	private volatile int contentVersion;
+	/**
+	 * キャッシュされた内容のハッシュ値です.算出していない場合はnull。
+	 */
+	private volatile Cached contentHash;
+	/**
+	 * キャッシュされた差分ハッシュ(dHash)です.算出していない場合はnull。
+	 */
+	private volatile Cached dHash;
+	/**
+	 * ScaledImageCacheでこの画像の内容を識別するキーです.resizeToCachedで作成され、内容が変更されるとnullに戻ります。
+	 * cloneで作成された画像は、内容が変更されるまで同じキーを使用します。
+	 */
+	private Object scaleKey;
+	/**
+	 * imageがこのインスタンス以外からも書き換えられる可能性がある場合はtrueです.
+	 * 外部から渡された画像、部分画像、部分画像の元の画像、asBufferedImageで渡した画像が該当します。
+	 * trueの場合、他の参照からの書き換えを検知できないため、内容のハッシュ値とdHashはキャッシュしません。
+	 */
+	private volatile boolean aliased;
 
 	public RasterImage(BufferedImage image) {
+		this(image, true);
+	}
+
+	/**
+	 * 画像を指定してインスタンスを作成します.
+	 *
+	 * @param image 画像.<br>
+	 * @param aliased imageを他のオブジェクトも参照している場合はtrue.このクラスで作成した画像の場合はfalse。<br>
+	 */
+	RasterImage(BufferedImage image, boolean aliased) {
 		this.image = image;
+		this.aliased = aliased;
 	}
 
 	public RasterImage(int w, int h) {
-		this(ImageUtil.newImage(w, h));
+		this(ImageUtil.newImage(w, h), false);
 	}
 
 	public RasterImage(File f) {
 		this(f.getAbsolutePath());
 	}
 
+	//画像はImageUtilのキャッシュと共有し、最初の書き込みで複製する。キャッシュされた画像が書き換えられることはない。
 	public RasterImage(String path) {
-		this(ImageUtil.load(path));
+		this(ImageUtil.load(path), false);
+		//キャッシュを1つの共有者として数え、このカウントは減らない
+		this.share = new Share(2);
 	}
 
+	//iとピクセルを共有する。iがcloneによる複製と画像を共有している場合は、先にiの画像を複製する。
 	public RasterImage(RasterImage i) {
-		this(i.image);
+		this(i.sharedImage());
+	}
+
+	private synchronized BufferedImage sharedImage() {
+		prepareWrite();
+		aliased = true;
+		return image;
+	}
+
+	/**
+	 * 画像を書き換える前に呼び出します.
+	 * cloneで作成された他のインスタンスと画像を共有している場合は、この時点で画像を複製し共有を解除します。<br>
+	 */
+	private void prepareWrite() {
+		if (share == null) {
+			return;
+		}
+		//複数のスレッドから同時に呼ばれても、複製は1回だけ行う
+		synchronized (this) {
+			Share s = share;
+			if (s == null) {
+				return;
+			}
+			boolean copy;
+			synchronized (s) {
+				//最後の1つは元の画像をそのまま使用する
+				copy = s.count > 1;
+				s.count--;
+			}
+			if (copy) {
+				image = ImageUtil.copyRaster(image);
+			}
+			//shareはvolatileのため、nullを読んだスレッドには新しいimageが見える
+			share = null;
+		}
 	}
 
+	//返されるPixelを変更してもこの画像には反映されない。
 	public Pixel of(int x, int y) throws IndexOutOfBoundsException {
-		return asRaster().of(x, y);
+		return new Raster().new Pixel(getARGB(x, y));
+	}
+
+	/**
+	 * 1つのピクセルのARGBを取得します.
+	 *
+	 * @param x 位置.<br>
+	 * @param y 位置.<br>
+	 *
+	 * @return ARGB.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 位置が画像の外の場合.<br>
+	 */
+	public int getARGB(int x, int y) throws IndexOutOfBoundsException {
+		return ImageUtil.getPixel(image, x, y);
+	}
+
+	/**
+	 * 1つのピクセルのARGBを設定します.
+	 *
+	 * @param x 位置.<br>
+	 * @param y 位置.<br>
+	 * @param argb ARGB.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 位置が画像の外の場合.<br>
+	 */
+	public void setARGB(int x, int y, int argb) throws IndexOutOfBoundsException {
+		prepareWrite();
+		ImageUtil.setPixel(image, x, y, argb);
+		contentChanged();
+	}
+
+	/**
+	 * 1行分のピクセルを読み込みます.
+	 *
+	 * @param y 行.<br>
+	 * @param dst 格納先.nullの場合は新しい配列を作成します。<br>
+	 *
+	 * @return dst.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 行が画像の外の場合.<br>
+	 */
+	public int[] getRow(int y, int[] dst) throws IndexOutOfBoundsException {
+		return ImageUtil.getRow(image, y, dst);
+	}
+
+	/**
+	 * 1行分のピクセルを書き込みます.
+	 *
+	 * @param y 行.<br>
+	 * @param src 書き込むピクセル.画像の幅以上の長さが必要です。<br>
+	 *
+	 * @throws IndexOutOfBoundsException 行が画像の外の場合.<br>
+	 */
+	public void setRow(int y, int[] src) throws IndexOutOfBoundsException {
+		prepareWrite();
+		ImageUtil.setRow(image, y, src);
+		contentChanged();
+	}
+
+	/**
+	 * 矩形の範囲のピクセルを読み込みます.
+	 *
+	 * @param x 範囲の左上.<br>
+	 * @param y 範囲の左上.<br>
+	 * @param w 範囲の幅.<br>
+	 * @param h 範囲の高さ.<br>
+	 * @param dst 格納先.w * h以上の長さが必要です。nullの場合は新しい配列を作成します。<br>
+	 *
+	 * @return 行優先で格納したdst.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 範囲が画像の外にはみ出す場合.<br>
+	 */
+	public int[] getARGB(int x, int y, int w, int h, int[] dst) throws IndexOutOfBoundsException {
+		return ImageUtil.getPixels(image, x, y, w, h, dst, 0, w);
+	}
+
+	/**
+	 * 矩形の範囲にピクセルを書き込みます.
+	 *
+	 * @param x 範囲の左上.<br>
+	 * @param y 範囲の左上.<br>
+	 * @param w 範囲の幅.<br>
+	 * @param h 範囲の高さ.<br>
+	 * @param src 行優先で格納したピクセル.<br>
+	 *
+	 * @throws IndexOutOfBoundsException 範囲が画像の外にはみ出す場合.<br>
+	 */
+	public void setARGB(int x, int y, int w, int h, int[] src) throws IndexOutOfBoundsException {
+		prepareWrite();
+		ImageUtil.setPixels(image, x, y, w, h, src, 0, w);
+		contentChanged();
 	}
 
 	public Raster asRaster() {
@@ -427,6 +656,7 @@ public class RasterImage implements Cloneable {
 		Pixel[][] data = new Pixel[getHeight()][];
 		Raster r = new Raster();
 		for (int y = 0; y < getHeight(); y++) {
+			data[y] = new Pixel[getWidth()];
 			for (int x = 0; x < getWidth(); x++) {
 				data[y][x] = r.new Pixel(pix[y][x]);
 			}
@@ -451,15 +681,168 @@ public class RasterImage implements Cloneable {
 		return new ImageIcon(image);
 	}
 
+	//返された画像を直接書き換えた場合は、contentChangedを呼び出すこと。
 	public BufferedImage asBufferedImage() {
+		prepareWrite();
+		contentChanged();
+		aliased = true;
 		return image;
 	}
 
+	/**
+	 * 画像の内容が変更されたことを通知し、内容から算出したキャッシュを破棄します.
+	 * asBufferedImageやcreateGraphics2Dで取得したオブジェクトを使って画像を書き換えた場合は、
+	 * 書き換えた後にこのメソッドを呼び出してください。<br>
+	 */
+	public void contentChanged() {
+		Object key;
+		synchronized (this) {
+			contentVersion++;
+			key = scaleKey;
+			scaleKey = null;
+		}
+		if (key != null) {
+			ScaledImageCache.getDefault().invalidate(key);
+		}
+	}
+
+	/**
+	 * 画像の内容から算出した64ビットのハッシュ値を返します.
+	 * 値はキャッシュされ、contentChangedが呼ばれるまで再計算されません。
+	 * ただし、ピクセルを部分画像などと共有している画像では、他の参照からの書き換えを検知できないため毎回計算します。<br>
+	 *
+	 * @return ハッシュ値.<br>
+	 */
+	public long contentHash() {
+		if (aliased) {
+			return ContentHash.hash(image);
+		}
+		//算出中に内容が変更された場合は、古い版として保存されるため次回に再計算される
+		int version = contentVersion;
+		Cached c = contentHash;
+		if (c != null && c.version == version) {
+			return c.value;
+		}
+		long h = ContentHash.hash(image);
+		contentHash = new Cached(version, h);
+		return h;
+	}
+
+	/**
+	 * 画像の内容が同じであるかを検査します.
+	 * 大きさと、キャッシュされたハッシュ値を比較した後、ピクセルを先頭から比較し、最初に異なるピクセルが見つかった時点で終了します。
+	 * ピクセルを部分画像などと共有している画像では、ハッシュ値は比較しません。<br>
+	 *
+	 * @param i 比較する画像.<br>
+	 *
+	 * @return 大きさと全てのピクセルのARGBが一致する場合true.<br>
+	 */
+	public boolean contentEquals(RasterImage i) {
+		if (i == this) {
+			return true;
+		}
+		if (i == null || !sizeIs(i)) {
+			return false;
+		}
+		if (i.image == image) {
+			return true;
+		}
+		if (!aliased && !i.aliased && contentHash() != i.contentHash()) {
+			return false;
+		}
+		//1行ずつ読み込み、異なる行が見つかった時点で残りの行は読み込まない
+		int w = getWidth();
+		PixelBufferPool pool = PixelBufferPool.getDefault();
+		try (PixelBufferPool.Lease<int[]> la = pool.acquireInts(w); PixelBufferPool.Lease<int[]> lb = pool.acquireInts(w)) {
+			int[] a = la.get();
+			int[] b = lb.get();
+			for (int y = 0, h = getHeight(); y < h; y++) {
+				if (!Arrays.equals(ImageUtil.getRow(image, y, a), 0, w, ImageUtil.getRow(i.image, y, b), 0, w)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 平均ハッシュ(aHash)を算出します.
+	 *
+	 * @return 知覚的なハッシュ値.<br>
+	 *
+	 * @see ImageFingerprint#aHash(java.awt.image.BufferedImage)
+	 */
+	public long aHash() {
+		return ImageFingerprint.aHash(image);
+	}
+
+	/**
+	 * 差分ハッシュ(dHash)を算出します.
+	 * 値はcontentHashと同様にキャッシュされ、contentChangedが呼ばれるまで再計算されません。<br>
+	 *
+	 * @return 知覚的なハッシュ値.<br>
+	 *
+	 * @see ImageFingerprint#dHash(java.awt.image.BufferedImage)
+	 */
+	public long dHash() {
+		if (aliased) {
+			return ImageFingerprint.dHash(image);
+		}
+		int version = contentVersion;
+		Cached c = dHash;
+		if (c != null && c.version == version) {
+			return c.value;
+		}
+		long h = ImageFingerprint.dHash(image);
+		dHash = new Cached(version, h);
+		return h;
+	}
+
+	/**
+	 * 知覚ハッシュ(pHash)を算出します.
+	 *
+	 * @return 知覚的なハッシュ値.<br>
+	 *
+	 * @see ImageFingerprint#pHash(java.awt.image.BufferedImage)
+	 */
+	public long pHash() {
+		return ImageFingerprint.pHash(image);
+	}
+
+	/**
+	 * 画像の見た目が似ているかをdHashの距離で検査します.
+	 * 画面の内容が変化したかどうかの判定などに使用します。
+	 * dHashはキャッシュされるため、同じ画像と繰り返し比較する場合も再計算されません。<br>
+	 *
+	 * @param i 比較する画像.<br>
+	 * @param maxDistance 似ているとみなす最大の距離.0から64で、通常は5から10程度を指定します。<br>
+	 *
+	 * @return 距離がmaxDistance以下の場合true.<br>
+	 */
+	public boolean isSimilarTo(RasterImage i, int maxDistance) {
+		return ImageFingerprint.hammingDistance(dHash(), i.dHash()) <= maxDistance;
+	}
+
+	//複製は元の画像とピクセルを共有し、どちらかが最初に書き換えられるときに画像が複製される(コピーオンライト)。
+	//ただし、部分画像などを通じてこの画像のピクセルが他から書き換えられる可能性がある場合は、その場で複製する。
 	@Override
-	public RasterImage clone() {
+	public synchronized RasterImage clone() {
 		try {
 			var r = (RasterImage) super.clone();
-			r.image = ImageUtil.copy(image);
+			if (aliased) {
+				r.image = ImageUtil.copyRaster(image);
+				r.share = null;
+				r.aliased = false;
+				return r;
+			}
+			Share s = share;
+			if (s == null) {
+				share = s = new Share(1);
+			}
+			synchronized (s) {
+				s.count++;
+			}
+			r.share = s;
 			return r;
 		} catch (CloneNotSupportedException ex) {
 			throw new InternalError(ex);
@@ -471,6 +854,7 @@ public class RasterImage implements Cloneable {
 		return "RasterImage{" + "image=" + (image != null) + ", size=" + getSize() + '}';
 	}
 
+	//同一性に基づくハッシュ値。内容に基づくハッシュ値はcontentHashを使用する。
 	@Override
 	public int hashCode() {
 		int hash = 5;
@@ -494,7 +878,7 @@ public class RasterImage implements Cloneable {
 	}
 
 	public void draw(Graphics2D g, int x, int y) {
-
+		g.drawImage(image, x, y, null);
 	}
 
 	public Dimension getSize() {
@@ -528,11 +912,20 @@ public class RasterImage implements Cloneable {
 	}
 
 	public static void saveTo(File f, RasterImage i) throws ContentsIOException {
-		try {
-			ImageIO.write(i.image, "PNG", f);
-		} catch (IOException ex) {
-			throw new ContentsIOException(ex);
-		}
+		saveTo(f, i.image);
+	}
+
+	/**
+	 * 圧縮の設定を指定してPNGファイルに保存します.
+	 * 引数にエンコーダを指定しないsaveToはImageIOを使用します。<br>
+	 *
+	 * @param f 書き込むファイル.<br>
+	 * @param encoder 使用するエンコーダ.<br>
+	 *
+	 * @throws ContentsIOException ファイルが書き込めない場合.<br>
+	 */
+	public void saveTo(File f, PngEncoder encoder) throws ContentsIOException {
+		encoder.write(image, f);
 	}
 
 	public void saveTo(File f) throws ContentsIOException {
@@ -548,6 +941,8 @@ public class RasterImage implements Cloneable {
 	}
 
 	public Graphics2D createGraphics2D(RenderingQuality renderingPolicy) {
+		prepareWrite();
+		contentChanged();
 		Graphics2D g = image.createGraphics();
 		if (renderingPolicy != null) {
 			g.setRenderingHints(renderingPolicy.getRenderingHints());
@@ -557,24 +952,215 @@ public class RasterImage implements Cloneable {
 	}
 
 	public RasterImage fillBy(Color c) {
-		return asRaster().set(p -> p.to(c)).newImage();
+		return fillBy(ARGBColor.toARGB(c));
 	}
 
 	public RasterImage fillBy(int c) {
-		return asRaster().set(p -> p.to(c)).newImage();
+		int[] pix = new int[getWidth() * getHeight()];
+		Arrays.fill(pix, c);
+		return fromPixel(pix, getWidth(), getHeight());
 	}
 
 	public RasterImage fillBy(int r, int g, int b, int a) {
-		return asRaster().set(p -> p.to(r, g, b, a)).newImage();
+		return fillBy(ARGBColor.toARGB(a, r, g, b));
+	}
+
+	/**
+	 * ピクセル配列から新しい画像を作成します.
+	 *
+	 * @param pix ピクセル配列.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	private static RasterImage fromPixel(int[] pix, int w, int h) {
+		BufferedImage dst = ImageUtil.newImage(w, h);
+		ImageUtil.setPixel(dst, pix);
+		return new RasterImage(dst, false);
+	}
+
+	/**
+	 * 全てのピクセルに処理を適用した新しい画像を作成します.
+	 * 処理はBandExecutorの既定のインスタンスで行のバンドごとに並列に実行されます。<br>
+	 *
+	 * @param op ARGBを変換する処理.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	private RasterImage filter(IntUnaryOperator op) {
+		return filter(op, BandExecutor.getDefault());
+	}
+
+	private RasterImage filter(IntUnaryOperator op, BandExecutor executor) {
+		int w = getWidth();
+		int h = getHeight();
+		int[] pix = ImageUtil.getPixel(image);
+		executor.forEachPixel(pix, pix, w, h, op);
+		return fromPixel(pix, w, h);
+	}
+
+	/**
+	 * 配列の範囲を処理するカーネルです.
+	 */
+	@FunctionalInterface
+	private interface RangeKernel {
+
+		void apply(int[] src, int[] dst, int from, int to);
+	}
+
+	/**
+	 * 行のバンドごとにカーネルを適用した新しい画像を作成します.
+	 *
+	 * @param k 各バンドの範囲を処理するカーネル.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	private RasterImage filterBands(RangeKernel k) {
+		int w = getWidth();
+		int h = getHeight();
+		int[] pix = ImageUtil.getPixel(image);
+		BandExecutor.getDefault().forEachBand(w, h, (startY, endY) -> k.apply(pix, pix, startY * w, endY * w));
+		return fromPixel(pix, w, h);
+	}
+
+	/**
+	 * 出力先の画像のピクセルを操作する処理です.
+	 */
+	@FunctionalInterface
+	private interface ImageKernel {
+
+		void apply(int[] src, int[] dst, int w, int h);
+	}
+
+	/**
+	 * 作業用の配列を既定のPixelBufferPoolから借りる畳み込みのエンジンを返します.
+	 * 配列は呼び出しごとに返却されるため、画像の大きさの配列がスレッドに残り続けることはありません。<br>
+	 */
+	private static Convolution convolution() {
+		return new Convolution(BandExecutor.getDefault(), PixelBufferPool.getDefault());
+	}
+
+	/**
+	 * 処理の結果を出力先の画像に書き込みます.
+	 * ピクセルはPixelBufferPoolの配列にラスタから複製して処理し、結果をラスタに書き戻すため、
+	 * 新しい配列や画像は確保されず、画像の描画の高速化も維持されます。<br>
+	 *
+	 * @param k 処理.<br>
+	 * @param dst 出力先.この画像と同じ大きさである必要があります。この画像自身を指定できます。<br>
+	 * @param sameArray kがsrcとdstに同じ配列を受け付ける場合true.<br>
+	 *
+	 * @return dst.<br>
+	 */
+	private RasterImage applyTo(ImageKernel k, RasterImage dst, boolean sameArray) {
+		if (dst == null || !sizeIs(dst)) {
+			throw new IllegalArgumentException("destination size is not match : src=[" + getSize()
+					+ "] dst=[" + (dst == null ? null : dst.getSize()) + "]");
+		}
+		dst.prepareWrite();
+		int w = getWidth();
+		int h = getHeight();
+		PixelBufferPool pool = PixelBufferPool.getDefault();
+		//同じ配列を受け付ける処理はdstの配列だけで処理する
+		try (PixelBufferPool.Lease<int[]> srcLease = sameArray ? null : pool.acquireInts(w * h);
+				PixelBufferPool.Lease<int[]> dstLease = pool.acquireInts(w * h)) {
+			int[] out = dstLease.get();
+			int[] src = sameArray ? out : srcLease.get();
+			ImageUtil.getPixels(image, 0, 0, w, h, src, 0, w);
+			k.apply(src, out, w, h);
+			ImageUtil.setPixels(dst.image, 0, 0, w, h, out, 0, w);
+		}
+		dst.contentChanged();
+		return dst;
+	}
+
+	private RasterImage applyBandsTo(RangeKernel k, RasterImage dst) {
+		return applyTo((src, out, w, h)
+				-> BandExecutor.getDefault().forEachBand(w, h, (startY, endY) -> k.apply(src, out, startY * w, endY * w)),
+				dst, true);
+	}
+
+	/**
+	 * この画像のピクセルを出力先の画像に複製します.
+	 *
+	 * @param dst 出力先.この画像と同じ大きさである必要があります。<br>
+	 *
+	 * @return dst.<br>
+	 */
+	public RasterImage copyTo(RasterImage dst) {
+		return applyBandsTo((src, out, from, to) -> System.arraycopy(src, from, out, from, to - from), dst);
+	}
+
+	/**
+	 * 全てのピクセルのARGBを変換し、出力先の画像に書き込みます.
+	 *
+	 * @param op ARGBを変換する処理.<br>
+	 * @param dst 出力先.この画像と同じ大きさである必要があります。この画像自身を指定できます。<br>
+	 *
+	 * @return dst.<br>
+	 */
+	public RasterImage mapARGB(IntUnaryOperator op, RasterImage dst) {
+		return applyBandsTo((src, out, from, to) -> {
+			for (int i = from; i < to; i++) {
+				out[i] = op.applyAsInt(src[i]);
+			}
+		}, dst);
+	}
+
+	public RasterImage grayScale(RasterImage dst) {
+		return applyBandsTo(ChannelKernels.getInstance()::grayScale, dst);
+	}
+
+	public RasterImage weightedGrayScale(RasterImage dst) {
+		return applyBandsTo(ChannelKernels.getInstance()::weightedGrayScale, dst);
+	}
+
+	public RasterImage reverseColor(RasterImage dst) {
+		return applyBandsTo(ChannelKernels.getInstance()::reverse, dst);
+	}
+
+	public RasterImage monochrome(int center, RasterImage dst) {
+		ChannelKernels k = ChannelKernels.getInstance();
+		return applyBandsTo((src, out, from, to) -> k.monochrome(src, out, from, to, center), dst);
+	}
+
+	public RasterImage mulAlpha(float a, RasterImage dst) {
+		ChannelKernels k = ChannelKernels.getInstance();
+		return applyBandsTo((src, out, from, to) -> k.mulAlpha(src, out, from, to, a), dst);
+	}
+
+	public RasterImage applyLUT(ColorLUT lut, RasterImage dst) {
+		return applyBandsTo(lut::apply, dst);
+	}
+
+	public RasterImage applyLUT(ColorLUT3D lut, RasterImage dst) {
+		return applyBandsTo(lut::apply, dst);
+	}
+
+	public RasterImage boxBlur(int radius, EdgeMode edge, RasterImage dst) {
+		return applyTo((src, out, w, h) -> convolution().boxBlur(src, out, w, h, radius, edge), dst, true);
+	}
+
+	public RasterImage gaussianBlur(float sigma, EdgeMode edge, RasterImage dst) {
+		return applyTo((src, out, w, h) -> convolution().gaussianBlur(src, out, w, h, sigma, edge), dst, true);
+	}
+
+	public RasterImage sharpen(float amount, RasterImage dst) {
+		return applyTo((src, out, w, h) -> convolution().sharpen(src, out, w, h, amount, EdgeMode.CLAMP), dst, false);
+	}
+
+	public RasterImage sobel(RasterImage dst) {
+		return applyTo((src, out, w, h) -> convolution().sobel(src, out, w, h, EdgeMode.CLAMP), dst, true);
 	}
 
 	public List<RasterImage> splitRows(int y, int w, int h) throws GraphicsException {
 		try {
-			BufferedImage[] dst = new BufferedImage[image.getWidth() / w];
+			BufferedImage src = sharedImage();
+			BufferedImage[] dst = new BufferedImage[src.getWidth() / w];
 			for (int i = 0, x = 0; i < dst.length; i++, x += w) {
-				dst[i] = image.getSubimage(x, y, w, h);
+				dst[i] = src.getSubimage(x, y, w, h);
 			}
-			return Arrays.asList(dst).stream().map(p -> new RasterImage(image)).toList();
+			return Arrays.asList(dst).stream().map(p -> new RasterImage(p)).toList();
 		} catch (RasterFormatException e) {
 			throw new GraphicsException(e);
 		}
@@ -582,11 +1168,12 @@ public class RasterImage implements Cloneable {
 
 	public List<RasterImage> splitColumns(int x, int w, int h) throws GraphicsException {
 		try {
-			BufferedImage[] dst = new BufferedImage[image.getHeight() / h];
+			BufferedImage src = sharedImage();
+			BufferedImage[] dst = new BufferedImage[src.getHeight() / h];
 			for (int i = 0, y = 0; i < dst.length; i++, y += h) {
-				dst[i] = image.getSubimage(x, y, w, h);
+				dst[i] = src.getSubimage(x, y, w, h);
 			}
-			return Arrays.asList(dst).stream().map(p -> new RasterImage(image)).toList();
+			return Arrays.asList(dst).stream().map(p -> new RasterImage(p)).toList();
 		} catch (RasterFormatException e) {
 			throw new GraphicsException(e);
 		}
@@ -606,20 +1193,38 @@ public class RasterImage implements Cloneable {
 
 	public Map<String, RasterImage> splitAsMap(int w, int h, BiFunction<Integer, Integer, String> nameMapper)
 			throws GraphicsException {
-		Map<String, RasterImage> res = new HashMap<>();
-		var list2d = split2D(w, h);
-		for (int y = 0; y < list2d.size(); y++) {
-			var list = list2d.get(y);
-			for (int x = 0; x < list.size(); x++) {
-				res.put(nameMapper.apply(x, y), list.get(x));
-			}
-		}
-		return res;
+		return asSpriteSheet(w, h, nameMapper).asMap();
+	}
+
+	/**
+	 * この画像を同じ大きさのセルに分割したスプライトシートを作成します.
+	 * セルはこの画像とピクセルを共有し、参照されたときに生成されます。<br>
+	 *
+	 * @param w セルの幅.<br>
+	 * @param h セルの高さ.<br>
+	 *
+	 * @return スプライトシート.<br>
+	 */
+	public SpriteSheet asSpriteSheet(int w, int h) {
+		return new SpriteSheet(this, w, h);
+	}
+
+	/**
+	 * この画像を同じ大きさのセルに分割し、名前を付けたスプライトシートを作成します.
+	 *
+	 * @param w セルの幅.<br>
+	 * @param h セルの高さ.<br>
+	 * @param nameMapper セルの位置(x, y)から名前を作成する関数.<br>
+	 *
+	 * @return スプライトシート.<br>
+	 */
+	public SpriteSheet asSpriteSheet(int w, int h, BiFunction<Integer, Integer, String> nameMapper) {
+		return new SpriteSheet(this, w, h, nameMapper);
 	}
 
 	public static RasterImage screenShot(Rectangle r) throws GraphicsException {
 		try {
-			return new RasterImage(new Robot().createScreenCapture(r));
+			return new RasterImage(new Robot().createScreenCapture(r), false);
 		} catch (AWTException ex) {
 			throw new GraphicsException(ex);
 		}
@@ -633,20 +1238,34 @@ public class RasterImage implements Cloneable {
 		return tiling(xNum, 1, getWidth(), getHeight());
 	}
 
+	//拡大縮小が必要な場合は1枚だけ描画し、並べる処理は行ごとの配列のコピーで行う。
 	public RasterImage tiling(int xNum, int yNum, int drawW, int drawH) {
-		RasterImage dst = new RasterImage(xNum * drawW, yNum * drawH);
-		Graphics2D g2 = dst.createGraphics2D();
-		for (int y = 0; y < yNum; y++) {
-			for (int x = 0; x < xNum; x++) {
-				g2.drawImage(this.image, x * drawW, y * drawH, drawW, drawH, null);
+		RasterImage tile = this;
+		if (drawW != getWidth() || drawH != getHeight()) {
+			tile = new RasterImage(drawW, drawH);
+			Graphics2D g2 = tile.createGraphics2D();
+			g2.drawImage(this.image, 0, 0, drawW, drawH, null);
+			g2.dispose();
+		}
+		int w = xNum * drawW;
+		int h = yNum * drawH;
+		int[] pix = new int[w * h];
+		//左上のタイルを読み込み、同じ行の残りのタイルと2行目以降はその複製で埋める
+		ImageUtil.getPixels(tile.image, 0, 0, drawW, drawH, pix, 0, w);
+		for (int y = 0; y < drawH; y++) {
+			for (int x = 1; x < xNum; x++) {
+				System.arraycopy(pix, y * w, pix, y * w + x * drawW, drawW);
 			}
 		}
-		g2.dispose();
-		return dst;
+		for (int y = 1; y < yNum; y++) {
+			System.arraycopy(pix, 0, pix, y * drawH * w, drawH * w);
+		}
+		return fromPixel(pix, w, h);
 	}
 
+	//部分画像はこの画像とピクセルを共有する。
 	public RasterImage subImage(int x, int y, int w, int h) {
-		return new RasterImage(image.getSubimage(x, y, w, h));
+		return new RasterImage(sharedImage().getSubimage(x, y, w, h));
 	}
 
 	public RasterImage subImage(Point2D p, Dimension2D d) {
@@ -658,16 +1277,14 @@ public class RasterImage implements Cloneable {
 				r.getBounds().width, r.getBounds().height);
 	}
 
-	//pがtrueになる最も左上から最も右下が返される。
+	//pがtrueになるピクセルを全て含む最小の矩形が返される。該当するピクセルがない場合はnull。
 	public RasterImage autoTrimming(Predicate<Pixel> p) {
-		Point start = start(this, p);
-		Point end = end(this, p);
-		int w = end.x - start.x;
-		int h = end.y - start.y;
-		if (w <= 0 || h <= 0) {
+		Pixel px = new Raster().new Pixel(0);
+		Rectangle r = BoundingBoxScanner.scan(image, v -> p.test(px.to(v)), BandExecutor.sequential());
+		if (r == null) {
 			return null;
 		}
-		return subImage(start.x, start.y, w, h);
+		return subImage(r);
 	}
 
 	public static final Predicate<Pixel> ALPHA_IS_TRANSPARENT = (v) -> v.getA() == ARGBColor.ALPHA_TRANSPARENT;
@@ -675,44 +1292,19 @@ public class RasterImage implements Cloneable {
 	public static final Predicate<Pixel> ALPHA_IS_NOT_TRANSPARENT = (v) -> v.getA() != ARGBColor.ALPHA_TRANSPARENT;
 	public static final Predicate<Pixel> ALPHA_IS_NOT_OPAQUE = (v) -> v.getA() != ARGBColor.ALPHA_OPAQUE;
 
-	private static Point start(RasterImage src, Predicate<Pixel> p) {
-		Raster raster = src.asRaster();
-		Pixel[][] pix = raster.all();
-		Point res = new Point();
-		for (int y = 0; y < pix.length; y++) {
-			if (Stream.of(pix[y]).anyMatch(p)) {
-				res.y = y;
-				break;
-			}
-		}
-		pix = raster.rotate(90).all();
-		for (int y = 0; y < pix.length; y++) {
-			if (Stream.of(pix[y]).anyMatch(p)) {
-				res.x = y;
-				break;
-			}
-		}
-		return res;
-	}
+	//ARGB版。Pixelを作成しないため、大きな画像ではこちらを使用する。
+	public static final IntPredicate ARGB_ALPHA_IS_TRANSPARENT = (v) -> (v & ARGBColor.ARGB_ALPHA_MASK) == 0;
+	public static final IntPredicate ARGB_ALPHA_IS_OPAQUE = (v) -> (v & ARGBColor.ARGB_ALPHA_MASK) == ARGBColor.ARGB_ALPHA_MASK;
+	public static final IntPredicate ARGB_ALPHA_IS_NOT_TRANSPARENT = (v) -> (v & ARGBColor.ARGB_ALPHA_MASK) != 0;
+	public static final IntPredicate ARGB_ALPHA_IS_NOT_OPAQUE = (v) -> (v & ARGBColor.ARGB_ALPHA_MASK) != ARGBColor.ARGB_ALPHA_MASK;
 
-	private static Point end(RasterImage src, Predicate<Pixel> p) {
-		Raster raster = src.asRaster();
-		Pixel[][] pix = raster.all();
-		Point res = new Point();
-		for (int y = pix.length - 1; y >= 0; y--) {
-			if (Stream.of(pix[y]).anyMatch(p)) {
-				res.y = y;
-				break;
-			}
-		}
-		pix = raster.rotate(90).all();
-		for (int y = pix.length - 1; y >= 0; y--) {
-			if (Stream.of(pix[y]).anyMatch(p)) {
-				res.x = y;
-				break;
-			}
+	//pがtrueになるピクセルを全て含む最小の矩形が返される。該当するピクセルがない場合はnull。
+	public RasterImage autoTrimmingARGB(IntPredicate p) {
+		Rectangle r = BoundingBoxScanner.scan(image, p);
+		if (r == null) {
+			return null;
 		}
-		return res;
+		return subImage(r);
 	}
 
 	public static RasterImage concatX(RasterImage... i) {
@@ -726,102 +1318,283 @@ public class RasterImage implements Cloneable {
 		int maxHeight = i.stream().mapToInt((p -> p.getHeight())).max().getAsInt();
 		int width = i.stream().mapToInt(p -> p.getWidth()).sum();
 
-		RasterImage res = new RasterImage(width, maxHeight);
-		Graphics2D g = res.createGraphics2D(RenderingQuality.QUALITY);
+		//透明な画像への描画は単なるコピーになるため、行ごとの配列のコピーで行う。
+		int[] pix = new int[width * maxHeight];
 		for (int n = 0, x = 0; n < i.size(); n++) {
-			g.drawImage(i.get(n).image, x, 0, null);
-			x += i.get(n).getWidth();
+			RasterImage v = i.get(n);
+			ImageUtil.getPixels(v.image, 0, 0, v.getWidth(), v.getHeight(), pix, x, width);
+			x += v.getWidth();
+		}
+		return fromPixel(pix, width, maxHeight);
+	}
+
+	/**
+	 * 画像を指定された位置に合成した新しい画像を作成します.
+	 *
+	 * @param src 描画する画像.<br>
+	 * @param x X座標.<br>
+	 * @param y Y座標.<br>
+	 * @param op 合成の処理.CompositeRuleまたはBlendModeを指定できます。<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage composite(RasterImage src, int x, int y, Compositor.PixelOperator op) {
+		return composite(src, x, y, op, 1f);
+	}
+
+	/**
+	 * 画像を指定された位置に不透明度を掛けて合成した新しい画像を作成します.
+	 * 合成はCompositorによって整数演算で行われるため、結果は実行環境に依存しません。<br>
+	 *
+	 * @param src 描画する画像.<br>
+	 * @param x X座標.<br>
+	 * @param y Y座標.<br>
+	 * @param op 合成の処理.CompositeRuleまたはBlendModeを指定できます。<br>
+	 * @param opacity srcの不透明度.0から1.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 *
+	 * @throws IllegalArgumentException 不透明度が範囲外の場合.<br>
+	 */
+	public RasterImage composite(RasterImage src, int x, int y, Compositor.PixelOperator op, float opacity)
+			throws IllegalArgumentException {
+		if (!(opacity >= 0f && opacity <= 1f)) {
+			throw new IllegalArgumentException("opacity is out of range : opacity=[" + opacity + "]");
 		}
+		RasterImage res = clone();
+		res.prepareWrite();
+		new Compositor().composite(src.image, res.image, x, y, op, Math.round(opacity * 255));
+		res.contentChanged();
 		return res;
 	}
 
 	public boolean hasClaerPixel() {
-		return asRaster().stream().anyMatch(p -> p.is完全透明());
+		return anyMatchARGB(ARGB_ALPHA_IS_TRANSPARENT);
 	}
 
 	public boolean hasOpauePixel() {
-		return asRaster().stream().anyMatch(p -> p.is不透明());
+		return anyMatchARGB(ARGB_ALPHA_IS_OPAQUE);
+	}
+
+	/**
+	 * 条件を満たすピクセルが存在するかを検査します.
+	 *
+	 * @param p ARGBに対する条件.<br>
+	 *
+	 * @return 条件を満たすピクセルが1つ以上ある場合true.<br>
+	 */
+	public boolean anyMatchARGB(IntPredicate p) {
+		try (PixelView v = PixelView.strips(image)) {
+			while (v.next()) {
+				for (int i = 0, end = v.rows * v.width; i < end; i++) {
+					if (p.test(v.data[i])) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
 	}
 
+	//Pixelを受け取る処理は状態を持つ場合があるため、呼び出し元のスレッドで順に実行する。
 	public RasterImage replaceColor(Predicate<Pixel> b, UnaryOperator<Pixel> converter) {
-		return asRaster().set(p -> {
+		Raster rs = new Raster();
+		return filter(v -> {
+			Pixel p = rs.new Pixel(v);
 			if (b.test(p)) {
-				return converter.apply(p);
+				return converter.apply(p).value;
 			}
-			return p;
-		}).newImage();
+			return v;
+		}, BandExecutor.sequential());
+	}
+
+	/**
+	 * 条件を満たすピクセルのARGBを変換した新しい画像を作成します.
+	 * 処理は行のバンドごとに並列に実行されるため、状態を持たないようにしてください。<br>
+	 *
+	 * @param b ARGBに対する条件.<br>
+	 * @param converter 条件を満たしたピクセルのARGBを変換する処理.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage replaceColorARGB(IntPredicate b, IntUnaryOperator converter) {
+		return filter(v -> b.test(v) ? converter.applyAsInt(v) : v);
+	}
+
+	/**
+	 * 全てのピクセルのARGBを変換した新しい画像を作成します.
+	 * 処理は行のバンドごとに並列に実行されるため、状態を持たないようにしてください。<br>
+	 *
+	 * @param op ARGBを変換する処理.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage mapARGB(IntUnaryOperator op) {
+		return filter(op);
 	}
 
 	public RasterImage grayScale() {
-		return asRaster().set(p -> p.average()).newImage();
+		return filterBands(ChannelKernels.getInstance()::grayScale);
 	}
 
 	public RasterImage weightedGrayScale() {
-		Raster rs = asRaster();
-		return rs.set(p -> {
-			int r = (int) (p.getR() * 0.298912f);
-			int g = (int) (p.getG() * 0.586611f);
-			int b = (int) (p.getB() * 0.114478f);
-			return rs.new Pixel(ARGBColor.toARGB(p.getA(), r, g, b));
-		}).newImage();
+		return filterBands(ChannelKernels.getInstance()::weightedGrayScale);
 	}
 
 	public RasterImage sepia() {
-		RasterImage i = grayScale();
-		Raster rs = i.asRaster();
-		return rs.set(p -> {
-			int r = (int) (p.getR() * 1.12f);
-			if (r > 255) {
-				r = 255;
-			}
-			int g = (int) (p.getG() * 0.66f);
-			int b = (int) (p.getB() * 0.20f);
-			return rs.new Pixel(ARGBColor.toARGB(p.getA(), r, g, b));
-		}).updateImage();
+		return applyLUT(ColorLUT.sepia());
+	}
+
+	public RasterImage brightness(int delta) {
+		return applyLUT(ColorLUT.brightness(delta));
+	}
+
+	public RasterImage contrast(float contrast) {
+		return applyLUT(ColorLUT.contrast(contrast));
+	}
+
+	public RasterImage gamma(float gamma) {
+		return applyLUT(ColorLUT.gamma(gamma));
+	}
+
+	/**
+	 * LUTを適用した新しい画像を作成します.
+	 * 複数の調整を行う場合は、ColorLUT.andThenで合成してから適用すると1回の走査で済みます。<br>
+	 *
+	 * @param lut 適用するLUT.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage applyLUT(ColorLUT lut) {
+		return filterBands(lut::apply);
+	}
+
+	/**
+	 * 3次元LUTを適用した新しい画像を作成します.
+	 *
+	 * @param lut 適用するLUT.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage applyLUT(ColorLUT3D lut) {
+		return filterBands(lut::apply);
 	}
 
 	public RasterImage monochrome(int center) {
-		Raster rs = asRaster();
-		return rs.set(p -> {
-			int a = p.average().value;
-			if (a > center) {
-				return rs.new Pixel(ARGBColor.WHITE);
-			} else {
-				return rs.new Pixel(ARGBColor.BLACK);
-			}
-		}).newImage();
+		ChannelKernels k = ChannelKernels.getInstance();
+		return filterBands((src, dst, from, to) -> k.monochrome(src, dst, from, to, center));
 	}
 
 	public RasterImage reverseColor() {
-		return asRaster().set(p -> p.reverse()).newImage();
+		return filterBands(ChannelKernels.getInstance()::reverse);
+	}
+
+	public RasterImage boxBlur(int radius) {
+		return boxBlur(radius, EdgeMode.CLAMP);
+	}
+
+	public RasterImage boxBlur(int radius, EdgeMode edge) {
+		int[] pix = ImageUtil.getPixel(image);
+		convolution().boxBlur(pix, pix, getWidth(), getHeight(), radius, edge);
+		return fromPixel(pix, getWidth(), getHeight());
+	}
+
+	public RasterImage gaussianBlur(float sigma) {
+		return gaussianBlur(sigma, EdgeMode.CLAMP);
+	}
+
+	public RasterImage gaussianBlur(float sigma, EdgeMode edge) {
+		int[] pix = ImageUtil.getPixel(image);
+		convolution().gaussianBlur(pix, pix, getWidth(), getHeight(), sigma, edge);
+		return fromPixel(pix, getWidth(), getHeight());
+	}
+
+	public RasterImage sharpen(float amount) {
+		int[] src = ImageUtil.getPixel(image);
+		int[] pix = new int[src.length];
+		convolution().sharpen(src, pix, getWidth(), getHeight(), amount, EdgeMode.CLAMP);
+		return fromPixel(pix, getWidth(), getHeight());
+	}
+
+	//Sobelフィルタによるエッジの画像を返す。エッジの強さが明度となる不透明なグレースケール画像。
+	public RasterImage sobel() {
+		int[] pix = ImageUtil.getPixel(image);
+		convolution().sobel(pix, pix, getWidth(), getHeight(), EdgeMode.CLAMP);
+		return fromPixel(pix, getWidth(), getHeight());
 	}
 
 	public RasterImage mosaic(int size) throws GraphicsException {
-		BufferedImage src = this.image;
 		if (size < 1) {
 			throw new IllegalArgumentException("size < 1 : size=[" + size + "]");
 		}
-		if (size > src.getWidth() || size > src.getHeight()) {
+		if (size > getWidth() || size > getHeight()) {
 			throw new GraphicsException("size is over image bounds : size=[" + size + "]");
 		}
-		BufferedImage dst = ImageUtil.copy(src);
-		int[][] pix = getPixel2D(src);
-		for (int y = 0, imageHeight = src.getHeight(); y < imageHeight; y += size) {
-			for (int x = 0, imageWidth = src.getWidth(); x < imageWidth; x += size) {
-				int argb = pix[y][x];
-				for (int mosaicY = y, i = 0; i < size; mosaicY++, i++) {
-					for (int mosaicX = x, j = 0; j < size; mosaicX++, j++) {
-						if (mosaicX <= imageWidth && mosaicY <= imageHeight) {
-							pix[mosaicY][mosaicX] = argb;
-						}
-					}
-				}
-			}
-		}
-		ImageUtil.setPixel2D(dst, pix);
-		return new RasterImage(dst);
-	}
-
+		int[] pix = ImageUtil.getPixel(image);
+		Mosaic.apply(pix, pix, getWidth(), getHeight(), size, BandExecutor.getDefault());
+		return fromPixel(pix, getWidth(), getHeight());
+	}
+
+	/**
+	 * 時計回りに90度回転した新しい画像を作成します.幅と高さは入れ替わります。
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage rotate90() {
+		return rotateRightAngle(1);
+	}
+
+	/**
+	 * 180度回転した新しい画像を作成します.
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage rotate180() {
+		return rotateRightAngle(2);
+	}
+
+	/**
+	 * 時計回りに270度回転した新しい画像を作成します.幅と高さは入れ替わります。
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage rotate270() {
+		return rotateRightAngle(3);
+	}
+
+	/**
+	 * 時計回りに90度単位で回転した新しい画像を作成します.
+	 * このメソッドは補間を行わないため劣化せず、回転の回数が奇数の場合は幅と高さが入れ替わった画像を返します。<br>
+	 *
+	 * @param quarterTurns 時計回りに90度回転する回数.負の値は反時計回りです。<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	public RasterImage rotateRightAngle(int quarterTurns) {
+		int w = getWidth();
+		int h = getHeight();
+		int[] src = ImageUtil.getPixel(image);
+		int[] pix = new int[src.length];
+		RightAngleTransform.rotate(src, pix, w, h, quarterTurns, BandExecutor.getDefault());
+		return RightAngleTransform.normalize(quarterTurns) % 2 == 0
+				? fromPixel(pix, w, h)
+				: fromPixel(pix, h, w);
+	}
+
+	public RasterImage flipHorizontal() {
+		int[] pix = ImageUtil.getPixel(image);
+		RightAngleTransform.flipHorizontal(pix, pix, getWidth(), getHeight(), BandExecutor.getDefault());
+		return fromPixel(pix, getWidth(), getHeight());
+	}
+
+	public RasterImage flipVertical() {
+		int[] src = ImageUtil.getPixel(image);
+		int[] pix = new int[src.length];
+		RightAngleTransform.flipVertical(src, pix, getWidth(), getHeight(), BandExecutor.getDefault());
+		return fromPixel(pix, getWidth(), getHeight());
+	}
+
+	//画像の大きさは変わらず、中心を軸に回転する。90度単位で大きさも回転させる場合はrotateRightAngleを使用する。
 	public RasterImage rotate(float angle) {
 		while (angle > 360) {
 			angle -= 360;
@@ -832,6 +1605,9 @@ public class RasterImage implements Cloneable {
 		if (angle == 0) {
 			return clone();
 		}
+		if (angle == 180) {
+			return rotate180();
+		}
 		RasterImage dst = clone();
 		Graphics2D g = dst.createGraphics2D(RenderingQuality.QUALITY);
 		g.setClip(0, 0, dst.getWidth(), dst.getHeight());
@@ -844,43 +1620,42 @@ public class RasterImage implements Cloneable {
 	}
 
 	public RasterImage addAlpha(int a) {
-		return asRaster().set(p -> p.addA(a)).newImage();
+		return filter(v -> ARGBColor.withAlpha(v, ARGBColor.clamp(ARGBColor.getAlpha(v) + a)));
 	}
 
 	public RasterImage mulAlpha(float a) {
-		return asRaster().set(p -> p.mulA(a)).newImage();
+		ChannelKernels k = ChannelKernels.getInstance();
+		return filterBands((src, dst, from, to) -> k.mulAlpha(src, dst, from, to, a));
 	}
 
 	public RasterImage rasterScroll(int[] shiftPixNum, int insertARGB) {
-		BufferedImage dst = ImageUtil.copy(this.image);
-		int[] sPix = shiftPixNum;
-		if (shiftPixNum.length != dst.getHeight()) {
-			sPix = new int[dst.getHeight()];
+		int w = getWidth();
+		int h = getHeight();
+		final int[] sPix;
+		if (shiftPixNum.length != h) {
+			sPix = new int[h];
 			for (int i = 0, spi = 0; i < sPix.length; i++) {
 				sPix[i] = shiftPixNum[spi];
 				spi = (spi < shiftPixNum.length - 1) ? spi + 1 : 0;
 			}
+		} else {
+			sPix = shiftPixNum;
 		}
-		int[][] pix = getPixel2D(dst);
-		for (int y = 0; y < pix.length; y++) {
-			if (sPix[y] == 0) {
-				continue;
-			}
-			final int[] ROW = new int[pix[y].length];
-			System.arraycopy(pix[y], 0, ROW, 0, ROW.length);
-			int x = 0, lineIdx = 0;
-			if (sPix[y] > 0) {
-				Arrays.fill(pix[y], 0, sPix[y], insertARGB);
-				x += sPix[y];
+		int[] src = ImageUtil.getPixel(image);
+		int[] pix = new int[src.length];
+		BandExecutor.getDefault().forEachRow(src, pix, w, h, (s, d, offset, width, y) -> {
+			int shift = sPix[y];
+			if (Math.abs(shift) >= width) {
+				Arrays.fill(d, offset, offset + width, insertARGB);
+			} else if (shift >= 0) {
+				Arrays.fill(d, offset, offset + shift, insertARGB);
+				System.arraycopy(s, offset, d, offset + shift, width - shift);
 			} else {
-				lineIdx += Math.abs(sPix[y]);
+				System.arraycopy(s, offset - shift, d, offset, width + shift);
+				Arrays.fill(d, offset + width + shift, offset + width, insertARGB);
 			}
-			System.arraycopy(ROW, lineIdx, pix[y], x, ROW.length - Math.abs(sPix[y]));
-			x += ROW.length - Math.abs(sPix[y]);
-			Arrays.fill(pix[y], x, pix[y].length, insertARGB);
-		}
-		setPixel2D(dst, pix);
-		return new RasterImage(dst);
+		});
+		return fromPixel(pix, w, h);
 	}
 
 	public RasterImage resizeTo(float scale) {
@@ -903,10 +1678,9 @@ public class RasterImage implements Cloneable {
 		return resizeTo(i.getWidth(), i.getHeight());
 	}
 
+	//Java2Dで拡大縮小する。補間フィルタを指定する場合はresizeTo(w, h, filter)を使用する。
 	public RasterImage resizeTo(int w, int h) {
-		if (w == 0 || h == 0) {
-			throw new IllegalArgumentException("resize image : size is 0");
-		}
+		checkResize(w, h);
 		if (getWidth() == w && getHeight() == h) {
 			return clone();
 		}
@@ -917,6 +1691,81 @@ public class RasterImage implements Cloneable {
 		return dst;
 	}
 
+	/**
+	 * 指定されたフィルタで拡大縮小した新しい画像を作成します.
+	 * 処理はResamplerによって並列に行われます。結果はキャッシュされません。<br>
+	 *
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param filter 補間フィルタ.<br>
+	 *
+	 * @return 新しい画像.大きさが同じ場合は複製.<br>
+	 *
+	 * @throws IllegalArgumentException サイズが0以下の場合.<br>
+	 */
+	public RasterImage resizeTo(int w, int h, ResampleFilter filter) throws IllegalArgumentException {
+		checkResize(w, h);
+		if (getWidth() == w && getHeight() == h) {
+			return clone();
+		}
+		return resample(w, h, filter);
+	}
+
+	/**
+	 * 指定されたフィルタで拡大縮小した新しい画像を作成し、ScaledImageCacheに保持します.
+	 * 同じ大きさを再度要求した場合は拡大縮小は行われません。
+	 * 繰り返し同じ大きさで描画する画像に使用してください。1度しか使用しない画像にはresizeToを使用してください。
+	 * ピクセルを部分画像などと共有している画像は、他の参照からの書き換えを検知できないため、キャッシュせずに毎回拡大縮小します。<br>
+	 *
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param filter 補間フィルタ.<br>
+	 *
+	 * @return 新しい画像.大きさが同じ場合は複製.<br>
+	 *
+	 * @throws IllegalArgumentException サイズが0以下の場合.<br>
+	 */
+	public RasterImage resizeToCached(int w, int h, ResampleFilter filter) throws IllegalArgumentException {
+		checkResize(w, h);
+		if (getWidth() == w && getHeight() == h) {
+			return clone();
+		}
+		if (aliased) {
+			return resample(w, h, filter);
+		}
+		Object key;
+		synchronized (this) {
+			if (scaleKey == null) {
+				scaleKey = new Object();
+			}
+			key = scaleKey;
+		}
+		return ScaledImageCache.getDefault().get(key, this, w, h, filter);
+	}
+
+	private static void checkResize(int w, int h) throws IllegalArgumentException {
+		if (w <= 0 || h <= 0) {
+			throw new IllegalArgumentException("resize image : size is 0 : size=[" + w + "x" + h + "]");
+		}
+	}
+
+	/**
+	 * キャッシュを使用せずに拡大縮小した新しい画像を作成します.
+	 *
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param filter 補間フィルタ.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 */
+	RasterImage resample(int w, int h, ResampleFilter filter) {
+		int[] pix = new int[w * h];
+		try (PixelView v = PixelView.whole(image)) {
+			new Resampler(filter).resize(v.data, 0, v.width, v.width, v.height, pix, w, h);
+		}
+		return fromPixel(pix, w, h);
+	}
+
 	public static List<RasterImage> resizeAll(float scale, RasterImage... images) {
 		return resizeAll(scale, Arrays.asList(images));
 	}
@@ -930,11 +1779,7 @@ public class RasterImage implements Cloneable {
 	}
 
 	public static List<RasterImage> resizeAll(float wScale, float hScale, List<RasterImage> images) {
-		List<RasterImage> res = new ArrayList<>();
-		for (var v : images) {
-			res.add(v.resizeTo(wScale, hScale));
-		}
-		return res;
+		return resizeEach(images, v -> v.resizeTo(wScale, hScale));
 	}
 
 	public static List<RasterImage> resizeAll(Dimension2D d, RasterImage... images) {
@@ -950,11 +1795,48 @@ public class RasterImage implements Cloneable {
 	}
 
 	public static List<RasterImage> resizeAll(int w, int h, List<RasterImage> images) {
-		List<RasterImage> res = new ArrayList<>();
-		for (var v : images) {
-			res.add(v.resizeTo(w, h));
+		return resizeEach(images, v -> v.resizeTo(w, h));
+	}
+
+	/**
+	 * 画像ごとの処理をBandExecutorの既定のインスタンスで並列に実行します.
+	 * 同じインスタンスが複数回含まれる場合、処理は1回だけ行い、2回目以降はその結果の複製を使用します。<br>
+	 *
+	 * @param images 画像.<br>
+	 * @param op 各画像に対する処理.<br>
+	 *
+	 * @return imagesと同じ順序の結果.<br>
+	 */
+	private static List<RasterImage> resizeEach(List<RasterImage> images, UnaryOperator<RasterImage> op) {
+		RasterImage[] src = images.toArray(RasterImage[]::new);
+		int n = src.length;
+		int[] first = new int[n];
+		IdentityHashMap<RasterImage, Integer> index = new IdentityHashMap<>();
+		long pixels = 0;
+		for (int i = 0; i < n; i++) {
+			first[i] = index.computeIfAbsent(src[i], k -> Integer.valueOf(index.size()));
+			pixels += (long) src[i].getWidth() * src[i].getHeight();
 		}
-		return res;
+		RasterImage[] unique = new RasterImage[index.size()];
+		for (var e : index.entrySet()) {
+			unique[e.getValue()] = e.getKey();
+		}
+		RasterImage[] res = new RasterImage[unique.length];
+		//1枚の画像を1行とみなしてバンドに分割する
+		int avg = n == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, pixels / n);
+		BandExecutor.getDefault().forEachBand(avg, unique.length, 1, (startY, endY) -> {
+			for (int i = startY; i < endY; i++) {
+				res[i] = op.apply(unique[i]);
+			}
+		});
+		List<RasterImage> list = new ArrayList<>(n);
+		boolean[] used = new boolean[unique.length];
+		for (int i = 0; i < n; i++) {
+			int u = first[i];
+			list.add(used[u] ? res[u].clone() : res[u]);
+			used[u] = true;
+		}
+		return list;
 	}
 
 	public List<RasterImage> nCopies(int n) {
@@ -0,0 +1,346 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+/**
+ * ARGBのピクセルをそのまま格納する独自の画像ファイル形式です.
+ * <br>
+ * PNGと異なり読み込み時のデコードが不要なため、大きな画像や頻繁に読み込む画像を高速に読み込めます。
+ * 無圧縮のファイルはメモリマップしたファイルから画像へストリップごとに一括でコピーするだけで読み込まれます。
+ * マップはガベージコレクションで解放されるまで残り、Windowsではその間ファイルを上書きや削除できません。
+ * 読み込んだ直後にファイルを書き換える場合は、マップを使用しないread(File, boolean)を使用してください。
+ * LZ4で圧縮した場合は、数十行ごとの帯(ストリップ)を単位として圧縮します。<br>
+ * ファイルの構造は次のとおりで、数値は全てリトルエンディアンです。<br>
+ * 0 : マジックナンバー "VAPR"<br>
+ * 4 : バージョン(1)<br>
+ * 8 : 幅<br>
+ * 12 : 高さ<br>
+ * 16 : ピクセル形式(0 : 乗算済みでないARGB)<br>
+ * 20 : 圧縮形式(0 : 無圧縮, 1 : LZ4)<br>
+ * 24 : ストリップの行数<br>
+ * 28 : 予約(0)<br>
+ * 32 : LZ4の場合、ストリップごとの圧縮後のバイト数(int x ストリップ数)<br>
+ * その後 : ピクセルデータ.左上から右方向、上から下の順のARGB(int)、またはストリップごとの圧縮データ<br>
+ *
+ * @version 1.0.0 - 2026/10/18_18:31:17<br>
+ * @author Shinacho<br>
+ */
+public final class RawImageFormat {
+
+	/**
+	 * この形式のファイルの拡張子です.
+	 */
+	public static final String EXTENSION = "vapr";
+	public static final int COMPRESSION_NONE = 0;
+	public static final int COMPRESSION_LZ4 = 1;
+	private static final int MAGIC = 'V' | 'A' << 8 | 'P' << 16 | 'R' << 24;
+	private static final int VERSION = 1;
+	private static final int FORMAT_ARGB = 0;
+	private static final int HEADER_BYTES = 32;
+	/**
+	 * 無圧縮のファイルを一度にマップする最大のバイト数です.
+	 */
+	private static final long MAP_WINDOW_BYTES = 256L * 1024 * 1024;
+
+	/**
+	 * ユーティリティクラスのためインスタンス化できません.
+	 */
+	private RawImageFormat() {
+	}
+
+	/**
+	 * ファイルがこの形式の拡張子を持つかを検査します.
+	 *
+	 * @param file ファイル.<br>
+	 *
+	 * @return 拡張子がEXTENSIONの場合true.<br>
+	 */
+	public static boolean isRawFile(File file) {
+		return file.getName().toLowerCase(Locale.ROOT).endsWith("." + EXTENSION);
+	}
+
+	/**
+	 * 画像をファイルに書き込みます.
+	 *
+	 * @param image 画像.<br>
+	 * @param file 書き込むファイル.上書きされます。<br>
+	 * @param compression COMPRESSION_NONEまたはCOMPRESSION_LZ4.<br>
+	 *
+	 * @throws ContentsIOException 書き込めない場合.<br>
+	 * @throws IllegalArgumentException 圧縮形式が不正な場合.<br>
+	 */
+	public static void write(BufferedImage image, File file, int compression)
+			throws ContentsIOException, IllegalArgumentException {
+		if (compression != COMPRESSION_NONE && compression != COMPRESSION_LZ4) {
+			throw new IllegalArgumentException("RawImageFormat : compression=[" + compression + "]");
+		}
+		int w = image.getWidth();
+		int h = image.getHeight();
+		int stripRows = BandExecutor.bandHeight(w);
+		int strips = (h + stripRows - 1) / stripRows;
+		ByteBuffer strip = ByteBuffer.allocate(stripRows * w * 4).order(ByteOrder.LITTLE_ENDIAN);
+		IntBuffer stripInts = strip.asIntBuffer();
+		try (PixelView v = PixelView.strips(image);
+				FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putInt(w).putInt(h)
+					.putInt(FORMAT_ARGB).putInt(compression).putInt(stripRows).putInt(0).flip();
+			writeFully(ch, header);
+			ByteBuffer sizes = null;
+			byte[] packed = null;
+			if (compression == COMPRESSION_LZ4) {
+				//サイズ表は最後に書き戻す
+				sizes = ByteBuffer.allocate(strips * 4).order(ByteOrder.LITTLE_ENDIAN);
+				ch.position(HEADER_BYTES + (long) strips * 4);
+				packed = new byte[LZ4Block.maxCompressedLength(strip.capacity())];
+			}
+			//PixelViewのストリップはファイルのストリップと同じ行数で区切られる
+			while (v.next()) {
+				int rows = v.rows;
+				stripInts.clear();
+				stripInts.put(v.data, 0, rows * w);
+				int bytes = rows * w * 4;
+				if (compression == COMPRESSION_LZ4) {
+					int n = LZ4Block.compress(strip.array(), 0, bytes, packed, 0);
+					sizes.putInt(n);
+					writeFully(ch, ByteBuffer.wrap(packed, 0, n));
+				} else {
+					writeFully(ch, ByteBuffer.wrap(strip.array(), 0, bytes));
+				}
+			}
+			if (sizes != null) {
+				ch.position(HEADER_BYTES);
+				writeFully(ch, sizes.flip());
+			}
+		} catch (IOException ex) {
+			throw new ContentsIOException(ex);
+		}
+	}
+
+	private static void writeFully(FileChannel ch, ByteBuffer b) throws IOException {
+		while (b.hasRemaining()) {
+			ch.write(b);
+		}
+	}
+
+	/**
+	 * ファイルから画像を読み込みます.
+	 * 無圧縮のファイルはメモリマップを使用して読み込みます。
+	 * 画像はTYPE_INT_ARGBで作成されます。<br>
+	 *
+	 * @param file 読み込むファイル.<br>
+	 *
+	 * @return 新しい画像.<br>
+	 *
+	 * @throws FileNotFoundException ファイルが存在しない場合.<br>
+	 * @throws ContentsIOException 読み込めない場合、またはファイルの形式が不正な場合.<br>
+	 */
+	public static BufferedImage read(File file) throws FileNotFoundException, ContentsIOException {
+		return read(file, true);
+	}
+
+	/**
+	 * ファイルから画像を読み込みます.
+	 * 画像はTYPE_INT_ARGBで作成されます。<br>
+	 *
+	 * @param file 読み込むファイル.<br>
+	 * @param map trueの場合、無圧縮のファイルをメモリマップして読み込みます。
+	 * falseの場合は再利用するダイレクトバッファに読み込むため、読み込み後にファイルは解放されています。<br>
+	 *
+	 * @return 新しい画像.<br>
+	 *
+	 * @throws FileNotFoundException ファイルが存在しない場合.<br>
+	 * @throws ContentsIOException 読み込めない場合、またはファイルの形式が不正な場合.<br>
+	 */
+	public static BufferedImage read(File file, boolean map) throws FileNotFoundException, ContentsIOException {
+		if (!file.exists()) {
+			throw new FileNotFoundException(file);
+		}
+		try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = ch.size();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			if (size < HEADER_BYTES || !readFully(ch, header, 0) || header.getInt(0) != MAGIC) {
+				throw new ContentsIOException("RawImageFormat : not a raw image : file=[" + file + "]");
+			}
+			int version = header.getInt(4);
+			int w = header.getInt(8);
+			int h = header.getInt(12);
+			int format = header.getInt(16);
+			int compression = header.getInt(20);
+			int stripRows = header.getInt(24);
+			if (version != VERSION || format != FORMAT_ARGB || w <= 0 || h <= 0 || stripRows <= 0
+					|| (compression != COMPRESSION_NONE && compression != COMPRESSION_LZ4)) {
+				throw new ContentsIOException("RawImageFormat : unsupported header : version=[" + version
+						+ "] format=[" + format + "] compression=[" + compression + "] w=[" + w + "] h=[" + h + "]");
+			}
+			//ストリップはバイト配列に展開するため、そのバイト数がintに収まる必要がある
+			long stripBytes = (long) Math.min(stripRows, h) * w * 4;
+			if ((long) w * h > Integer.MAX_VALUE || stripBytes > Integer.MAX_VALUE - 8) {
+				throw new ContentsIOException("RawImageFormat : image is too large : w=[" + w + "] h=[" + h
+						+ "] stripRows=[" + stripRows + "] file=[" + file + "]");
+			}
+			int strips = (h + stripRows - 1) / stripRows;
+			long dataStart = compression == COMPRESSION_LZ4 ? HEADER_BYTES + 4L * strips : HEADER_BYTES;
+			long minSize = compression == COMPRESSION_LZ4 ? dataStart : HEADER_BYTES + 4L * w * h;
+			if (size < minSize) {
+				throw new ContentsIOException("RawImageFormat : file is truncated : file=[" + file + "]");
+			}
+			BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+			int[] pix = new int[(int) (stripBytes / 4)];
+			if (compression == COMPRESSION_NONE && map) {
+				//マップの大きさはintに収まる必要があるため、ストリップの倍数の窓ごとにマップする
+				int windowRows = (int) Math.max(1, MAP_WINDOW_BYTES / stripBytes) * stripRows;
+				for (int y = 0; y < h; y += windowRows) {
+					int rowsInWindow = Math.min(windowRows, h - y);
+					IntBuffer src = ch.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + 4L * w * y, 4L * w * rowsInWindow)
+							.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+					for (int sy = y; sy < y + rowsInWindow; sy += stripRows) {
+						int rows = Math.min(stripRows, y + rowsInWindow - sy);
+						src.get(pix, 0, rows * w);
+						image.getRaster().setDataElements(0, sy, w, rows, pix);
+					}
+				}
+				return image;
+			}
+			ByteBuffer strip = compression == COMPRESSION_NONE
+					? ByteBuffer.allocateDirect((int) stripBytes).order(ByteOrder.LITTLE_ENDIAN)
+					: ByteBuffer.allocate((int) stripBytes).order(ByteOrder.LITTLE_ENDIAN);
+			IntBuffer ints = strip.asIntBuffer();
+			if (compression == COMPRESSION_NONE) {
+				long pos = HEADER_BYTES;
+				for (int y = 0; y < h; y += stripRows) {
+					int rows = Math.min(stripRows, h - y);
+					strip.clear().limit(rows * w * 4);
+					if (!readFully(ch, strip, pos)) {
+						throw new ContentsIOException("RawImageFormat : file is truncated : file=[" + file + "]");
+					}
+					pos += rows * w * 4L;
+					ints.clear();
+					ints.get(pix, 0, rows * w);
+					image.getRaster().setDataElements(0, y, w, rows, pix);
+				}
+			} else {
+				ByteBuffer sizes = ByteBuffer.allocate(strips * 4).order(ByteOrder.LITTLE_ENDIAN);
+				if (!readFully(ch, sizes, HEADER_BYTES)) {
+					throw new ContentsIOException("RawImageFormat : file is truncated : file=[" + file + "]");
+				}
+				byte[] packed = new byte[0];
+				long pos = dataStart;
+				for (int i = 0, y = 0; i < strips; i++, y += stripRows) {
+					int rows = Math.min(stripRows, h - y);
+					int n = sizes.getInt(i * 4);
+					if (n < 0 || pos + n > size) {
+						throw new ContentsIOException("RawImageFormat : file is truncated : file=[" + file + "]");
+					}
+					if (packed.length < n) {
+						packed = new byte[n];
+					}
+					if (!readFully(ch, ByteBuffer.wrap(packed, 0, n), pos)) {
+						throw new ContentsIOException("RawImageFormat : file is truncated : file=[" + file + "]");
+					}
+					pos += n;
+					LZ4Block.decompress(packed, 0, n, strip.array(), 0, rows * w * 4);
+					ints.clear();
+					ints.get(pix, 0, rows * w);
+					image.getRaster().setDataElements(0, y, w, rows, pix);
+				}
+			}
+			return image;
+		} catch (IOException ex) {
+			throw new ContentsIOException(ex);
+		}
+	}
+
+	/**
+	 * 指定された位置からバッファが一杯になるまで読み込みます.
+	 *
+	 * @return ファイルの終端に達する前に読み込めた場合true.<br>
+	 */
+	private static boolean readFully(FileChannel ch, ByteBuffer b, long pos) throws IOException {
+		while (b.hasRemaining()) {
+			int n = ch.read(b, pos);
+			if (n < 0) {
+				return false;
+			}
+			pos += n;
+		}
+		return true;
+	}
+
+	/**
+	 * ImageIOで読み込める画像ファイルをこの形式に変換します.
+	 *
+	 * @param src 変換元のファイル(PNGなど).<br>
+	 * @param dst 書き込むファイル.<br>
+	 * @param compression COMPRESSION_NONEまたはCOMPRESSION_LZ4.<br>
+	 *
+	 * @throws FileNotFoundException ファイルが存在しない場合.<br>
+	 * @throws ContentsIOException 読み込みまたは書き込みができない場合.<br>
+	 */
+	public static void fromImageFile(File src, File dst, int compression)
+			throws FileNotFoundException, ContentsIOException {
+		if (!src.exists()) {
+			throw new FileNotFoundException(src);
+		}
+		BufferedImage image;
+		try {
+			image = ImageIO.read(src);
+		} catch (IOException ex) {
+			throw new ContentsIOException(ex);
+		}
+		if (image == null) {
+			throw new ContentsIOException("image is null : file=[" + src + "]");
+		}
+		write(image, dst, compression);
+	}
+
+	/**
+	 * この形式のファイルをPNGに変換します.
+	 *
+	 * @param src 変換元のファイル.<br>
+	 * @param dst 書き込むPNGファイル.<br>
+	 *
+	 * @throws FileNotFoundException ファイルが存在しない場合.<br>
+	 * @throws ContentsIOException 読み込みまたは書き込みができない場合.<br>
+	 */
+	public static void toPNG(File src, File dst) throws FileNotFoundException, ContentsIOException {
+		try {
+			ImageIO.write(read(src), "PNG", dst);
+		} catch (IOException ex) {
+			throw new ContentsIOException(ex);
+		}
+	}
+}
@@ -0,0 +1,465 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.Arrays;
+
+/**
+ * ARGB配列の拡大縮小を行うエンジンです.
+ * <br>
+ * 水平方向と垂直方向の2回の1次元のフィルタに分けて処理します。
+ * 各出力行と各出力列の重みは処理の前に固定小数点の整数として計算されるため、
+ * ピクセルごとの計算は整数の積和だけで行われます。<br>
+ * 補間は乗算済みアルファの空間で行うため、透明な部分との境界が暗くなりません。
+ * 乗算済みの値は8ビットに丸めず、1チャンネル16ビットの中間形式で保持するため、半透明の色が処理の途中で変化しません。<br>
+ * 大きく縮小する場合は、先に整数倍のブロック平均で縮小し、残りの倍率をフィルタで処理します。
+ * フィルタの処理量は入力の大きさと縮小率に比例するため、これにより大きな縮小でも処理量がほぼ入力のピクセル数で決まります。<br>
+ * 各パスはBandExecutorによって行のバンドごとに並列に実行されます。<br>
+ * このクラスのインスタンスは状態を持たないため、スレッドセーフです。<br>
+ * <br>
+ *
+ * @version 1.0.0 - 2026/10/18_21:04:37<br>
+ * @author Shinacho<br>
+ */
+public final class Resampler {
+
+	/**
+	 * 固定小数点の重みの精度(ビット)です.
+	 */
+	private static final int WEIGHT_SHIFT = 14;
+	private static final int WEIGHT_ONE = 1 << WEIGHT_SHIFT;
+	private static final int WEIGHT_HALF = 1 << (WEIGHT_SHIFT - 1);
+	/**
+	 * 中間形式の乗算済みの値で、不透明なアルファを表す値です.
+	 */
+	private static final int PREMULTIPLIED_ONE = 255 * 255;
+	/**
+	 * 中間形式にした入力行と、垂直方向の積和を保持する作業用配列です.
+	 */
+	private static final ThreadLocal<int[]> ROW = ThreadLocal.withInitial(() -> new int[0]);
+	/**
+	 * ブロック平均で縮小した後にフィルタで処理する倍率の下限です.
+	 */
+	private static final int REDUCING_GAP = 2;
+	/**
+	 * ブロック平均の1辺の最大値です.
+	 */
+	private static final int MAX_REDUCE = 256;
+
+	private final ResampleFilter filter;
+	private final BandExecutor executor;
+
+	/**
+	 * 既定のエグゼキュータを使用するインスタンスを作成します.
+	 *
+	 * @param filter 補間フィルタ.<br>
+	 */
+	public Resampler(ResampleFilter filter) {
+		this(filter, BandExecutor.getDefault());
+	}
+
+	/**
+	 * 指定されたエグゼキュータを使用するインスタンスを作成します.
+	 *
+	 * @param filter 補間フィルタ.<br>
+	 * @param executor エグゼキュータ.<br>
+	 */
+	public Resampler(ResampleFilter filter, BandExecutor executor) {
+		this.filter = filter;
+		this.executor = executor;
+	}
+
+	public ResampleFilter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * 1次元の拡大縮小の重みの表です.
+	 * 出力iの値は、入力start[i]からcount[i]個のピクセルにweights[i * taps]からの重みを掛けた和です。
+	 */
+	private static final class Weights {
+
+		final int[] start;
+		final int[] count;
+		final int[] weights;
+		final int taps;
+
+		Weights(int[] start, int[] count, int[] weights, int taps) {
+			this.start = start;
+			this.count = count;
+			this.weights = weights;
+			this.taps = taps;
+		}
+	}
+
+	/**
+	 * 長さsrcLenをdstLenに変換する場合の重みを計算します.
+	 *
+	 * @param srcLen 入力の長さ.<br>
+	 * @param extent 入力の実際の長さ.ブロック平均で縮小した入力の最後のピクセルは1ピクセルに満たない場合があります。<br>
+	 * @param dstLen 出力の長さ.<br>
+	 *
+	 * @return 重みの表.<br>
+	 */
+	private Weights weights(int srcLen, double extent, int dstLen) {
+		double scale = extent / dstLen;
+		double fscale = Math.max(1.0, scale);
+		double support = filter == ResampleFilter.AREA
+				? fscale * 0.5
+				: filter.getSupport() * fscale;
+		int taps = (int) Math.ceil(support) * 2 + 2;
+		int[] start = new int[dstLen];
+		int[] count = new int[dstLen];
+		int[] weights = new int[dstLen * taps];
+		double[] w = new double[taps];
+		for (int i = 0; i < dstLen; i++) {
+			double center = (i + 0.5) * scale;
+			int left = Math.max(0, (int) Math.floor(center - support));
+			int right = Math.min(srcLen, (int) Math.ceil(center + support));
+			int n = right - left;
+			double total = 0;
+			for (int k = 0; k < n; k++) {
+				int s = left + k;
+				double v;
+				if (filter == ResampleFilter.AREA) {
+					//出力ピクセルが覆う範囲[center - scale / 2, center + scale / 2]と入力ピクセル[s, s + 1]の重なり
+					double lo = Math.max(s, center - scale * 0.5);
+					double hi = Math.min(s + 1, center + scale * 0.5);
+					v = Math.max(0.0, hi - lo);
+				} else {
+					v = filter.weight((s + 0.5 - center) / fscale);
+				}
+				w[k] = v;
+				total += v;
+			}
+			//両端の重みが0の入力は除外する
+			int from = 0;
+			while (from < n - 1 && w[from] == 0.0) {
+				from++;
+			}
+			while (n - 1 > from && w[n - 1] == 0.0) {
+				n--;
+			}
+			if (total == 0.0) {
+				int nearest = Math.min(srcLen - 1, (int) center);
+				start[i] = nearest;
+				count[i] = 1;
+				weights[i * taps] = WEIGHT_ONE;
+				continue;
+			}
+			//丸め誤差は最大の重みで吸収し、重みの和をちょうどWEIGHT_ONEにする
+			int sum = 0;
+			int max = from;
+			for (int k = from; k < n; k++) {
+				int q = (int) Math.round(w[k] / total * WEIGHT_ONE);
+				weights[i * taps + k - from] = q;
+				sum += q;
+				if (w[k] > w[max]) {
+					max = k;
+				}
+			}
+			weights[i * taps + max - from] += WEIGHT_ONE - sum;
+			start[i] = left + from;
+			count[i] = n - from;
+		}
+		return new Weights(start, count, weights, taps);
+	}
+
+	private static int[] row(int n) {
+		int[] r = ROW.get();
+		if (r.length < n) {
+			r = new int[n];
+			ROW.set(r);
+		}
+		return r;
+	}
+
+	/**
+	 * 画像を拡大縮小します.
+	 *
+	 * @param src 入力.ARGB.<br>
+	 * @param sw 入力の幅.<br>
+	 * @param sh 入力の高さ.<br>
+	 * @param dst 出力.ARGB.<br>
+	 * @param dw 出力の幅.<br>
+	 * @param dh 出力の高さ.<br>
+	 */
+	public void resize(int[] src, int sw, int sh, int[] dst, int dw, int dh) {
+		resize(src, 0, sw, sw, sh, dst, dw, dh);
+	}
+
+	/**
+	 * 画像を拡大縮小します.
+	 * 入力は行の間に隙間がある配列(部分画像のデータバッファなど)を指定できます。<br>
+	 *
+	 * @param src 入力.ARGB.位置(x, y)のピクセルはsrc[offset + y * stride + x]です。<br>
+	 * @param offset 入力の先頭のインデックス.<br>
+	 * @param stride 入力の1行の要素数.<br>
+	 * @param sw 入力の幅.<br>
+	 * @param sh 入力の高さ.<br>
+	 * @param dst 出力.ARGB.隙間のない配列です。<br>
+	 * @param dw 出力の幅.<br>
+	 * @param dh 出力の高さ.<br>
+	 *
+	 * @throws IllegalArgumentException サイズが0以下の場合、または配列が小さすぎる場合.<br>
+	 */
+	public void resize(int[] src, int offset, int stride, int sw, int sh, int[] dst, int dw, int dh)
+			throws IllegalArgumentException {
+		if (sw <= 0 || sh <= 0 || dw <= 0 || dh <= 0) {
+			throw new IllegalArgumentException("size is 0 : src=[" + sw + "x" + sh + "], dst=[" + dw + "x" + dh + "]");
+		}
+		if (stride < sw || offset < 0 || src.length < offset + (long) (sh - 1) * stride + sw || dst.length < (long) dw * dh) {
+			throw new IllegalArgumentException("buffer is too small : src=[" + sw + "x" + sh + "], dst=[" + dw + "x" + dh + "]");
+		}
+		int kx = reduceFactor(sw, dw);
+		int ky = reduceFactor(sh, dh);
+		if (kx == 1 && ky == 1) {
+			resize(src, offset, stride, sw, sh, false, sw, sh, dst, dw, dh);
+			return;
+		}
+		int rw = (sw + kx - 1) / kx;
+		int rh = (sh + ky - 1) / ky;
+		try (PixelBufferPool.Lease<int[]> lease = PixelBufferPool.getDefault().acquireInts(rw * rh * 2)) {
+			int[] reduced = lease.get();
+			executor.forEachBand(sw * ky, rh, (startY, endY) -> reduce(src, offset, stride, sw, sh, reduced, rw, kx, ky, startY, endY));
+			resize(reduced, 0, rw, rw, rh, true, (double) sw / kx, (double) sh / ky, dst, dw, dh);
+		}
+	}
+
+	/**
+	 * ブロック平均で縮小する倍率を決定します.
+	 *
+	 * @param src 入力の長さ.<br>
+	 * @param dst 出力の長さ.<br>
+	 *
+	 * @return 縮小の倍率.縮小しない場合は1.<br>
+	 */
+	private int reduceFactor(int src, int dst) {
+		if (filter == ResampleFilter.AREA && src % dst == 0) {
+			//整数倍の面積平均はブロック平均そのもの
+			return Math.min(MAX_REDUCE, src / dst);
+		}
+		return Math.max(1, Math.min(MAX_REDUCE, src / dst / REDUCING_GAP));
+	}
+
+	private void resize(int[] src, int offset, int stride, int sw, int sh, boolean premultiplied,
+			double extentX, double extentY, int[] dst, int dw, int dh) {
+		Weights wx = sw == dw && extentX == sw ? null : weights(sw, extentX, dw);
+		Weights wy = sh == dh && extentY == sh ? null : weights(sh, extentY, dh);
+		if (wy == null) {
+			executor.forEachBand(dw, sh, (startY, endY) -> resizeRows(src, offset, stride, sw, premultiplied, dst, dw, startY, endY, wx, false));
+			return;
+		}
+		try (PixelBufferPool.Lease<int[]> lease = PixelBufferPool.getDefault().acquireInts(dw * sh * 2)) {
+			int[] tmp = lease.get();
+			executor.forEachBand(dw, sh, (startY, endY) -> resizeRows(src, offset, stride, sw, premultiplied, tmp, dw, startY, endY, wx, true));
+			executor.forEachBand(dw, dh, (startY, endY) -> resizeColumns(tmp, dst, dw, startY, endY, wy));
+		}
+	}
+
+	/**
+	 * kx * kyのブロックごとの平均を、中間形式の乗算済みの値として出力します.
+	 * 右端と下端のブロックは、画像の内側にあるピクセルだけで平均します。<br>
+	 */
+	private static void reduce(int[] src, int offset, int stride, int sw, int sh, int[] dst, int rw,
+			int kx, int ky, int startY, int endY) {
+		for (int ry = startY; ry < endY; ry++) {
+			int y0 = ry * ky;
+			int y1 = Math.min(sh, y0 + ky);
+			for (int rx = 0, d = ry * rw * 2; rx < rw; rx++, d += 2) {
+				int x0 = rx * kx;
+				int x1 = Math.min(sw, x0 + kx);
+				long a = 0;
+				long r = 0;
+				long g = 0;
+				long b = 0;
+				for (int y = y0; y < y1; y++) {
+					for (int i = offset + y * stride + x0, end = i + x1 - x0; i < end; i++) {
+						int c = src[i];
+						int ca = c >>> 24;
+						a += ca;
+						r += (c >>> 16 & 0xFF) * ca;
+						g += (c >>> 8 & 0xFF) * ca;
+						b += (c & 0xFF) * ca;
+					}
+				}
+				long n = (long) (x1 - x0) * (y1 - y0);
+				long h = n >> 1;
+				dst[d] = (int) ((a * 255 + h) / n) << 16 | (int) ((r + h) / n);
+				dst[d + 1] = (int) ((g + h) / n) << 16 | (int) ((b + h) / n);
+			}
+		}
+	}
+
+	/**
+	 * 水平方向の処理を行います.
+	 *
+	 * @param srcPremultiplied 入力が中間形式の乗算済みの値の場合はtrue.<br>
+	 * @param premultiplied trueの場合は中間形式のまま出力し、falseの場合は通常のARGBに戻して出力します.<br>
+	 */
+	private static void resizeRows(int[] src, int offset, int stride, int sw, boolean srcPremultiplied, int[] dst, int dw,
+			int startY, int endY, Weights wx, boolean premultiplied) {
+		int[] buf = srcPremultiplied ? null : row(sw * 2);
+		for (int y = startY; y < endY; y++) {
+			int s = offset + y * stride;
+			int d = premultiplied ? y * dw * 2 : y * dw;
+			if (wx == null && srcPremultiplied == premultiplied) {
+				if (premultiplied) {
+					System.arraycopy(src, s * 2, dst, d, dw * 2);
+				} else {
+					System.arraycopy(src, s, dst, d, dw);
+				}
+				continue;
+			}
+			int[] p;
+			int base;
+			if (srcPremultiplied) {
+				p = src;
+				base = s * 2;
+			} else {
+				for (int x = 0; x < sw; x++) {
+					premultiply(src[s + x], buf, x * 2);
+				}
+				p = buf;
+				base = 0;
+			}
+			if (wx == null) {
+				//入力と出力の形式だけが異なる
+				if (premultiplied) {
+					System.arraycopy(p, base, dst, d, dw * 2);
+				} else {
+					for (int x = 0, i = base; x < dw; x++, i += 2) {
+						dst[d + x] = unpremultiply(p[i] >>> 16, p[i] & 0xFFFF, p[i + 1] >>> 16, p[i + 1] & 0xFFFF);
+					}
+				}
+				continue;
+			}
+			int[] ws = wx.weights;
+			for (int x = 0; x < dw; x++) {
+				int a = WEIGHT_HALF;
+				int r = WEIGHT_HALF;
+				int g = WEIGHT_HALF;
+				int b = WEIGHT_HALF;
+				for (int i = base + wx.start[x] * 2, k = x * wx.taps, end = k + wx.count[x]; k < end; i += 2, k++) {
+					int w = ws[k];
+					int ar = p[i];
+					int gb = p[i + 1];
+					a += w * (ar >>> 16);
+					r += w * (ar & 0xFFFF);
+					g += w * (gb >>> 16);
+					b += w * (gb & 0xFFFF);
+				}
+				if (premultiplied) {
+					pack(a, r, g, b, dst, d + x * 2);
+				} else {
+					dst[d + x] = unpack(a, r, g, b);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 垂直方向の処理を行います.
+	 * 入力行ごとに出力行全体へ積和を加算するため、メモリは行の順に参照されます。<br>
+	 */
+	private static void resizeColumns(int[] src, int[] dst, int w, int startY, int endY, Weights wy) {
+		int[] acc = row(w * 4);
+		int[] ws = wy.weights;
+		for (int y = startY; y < endY; y++) {
+			Arrays.fill(acc, 0, w * 4, WEIGHT_HALF);
+			for (int i = wy.start[y], k = y * wy.taps, end = k + wy.count[y]; k < end; i++, k++) {
+				int wt = ws[k];
+				for (int x = 0, s = i * w * 2, j = 0; x < w; x++, s += 2, j += 4) {
+					int ar = src[s];
+					int gb = src[s + 1];
+					acc[j] += wt * (ar >>> 16);
+					acc[j + 1] += wt * (ar & 0xFFFF);
+					acc[j + 2] += wt * (gb >>> 16);
+					acc[j + 3] += wt * (gb & 0xFFFF);
+				}
+			}
+			for (int x = 0, d = y * w, j = 0; x < w; x++, d++, j += 4) {
+				dst[d] = unpack(acc[j], acc[j + 1], acc[j + 2], acc[j + 3]);
+			}
+		}
+	}
+
+	/**
+	 * ARGBを中間形式の乗算済みの値にし、dst[i]とdst[i + 1]に格納します.
+	 * 1つ目のintの上位16ビットにアルファ x 255、下位16ビットに赤 x アルファ、
+	 * 2つ目のintの上位16ビットに緑 x アルファ、下位16ビットに青 x アルファを持ちます。<br>
+	 */
+	private static void premultiply(int argb, int[] dst, int i) {
+		int a = argb >>> 24;
+		dst[i] = a * 255 << 16 | (argb >>> 16 & 0xFF) * a;
+		dst[i + 1] = (argb >>> 8 & 0xFF) * a << 16 | (argb & 0xFF) * a;
+	}
+
+	/**
+	 * 固定小数点の積和を中間形式の乗算済みの値にし、dst[i]とdst[i + 1]に格納します.
+	 * 負のローブを持つフィルタでは範囲外の値になる場合があるため、アルファを0から255 x 255に、
+	 * 各色をアルファ以下に制限します。<br>
+	 */
+	private static void pack(int a, int r, int g, int b, int[] dst, int i) {
+		a = Math.min(PREMULTIPLIED_ONE, Math.max(0, a >> WEIGHT_SHIFT));
+		r = Math.min(a, Math.max(0, r >> WEIGHT_SHIFT));
+		g = Math.min(a, Math.max(0, g >> WEIGHT_SHIFT));
+		b = Math.min(a, Math.max(0, b >> WEIGHT_SHIFT));
+		dst[i] = a << 16 | r;
+		dst[i + 1] = g << 16 | b;
+	}
+
+	/**
+	 * 固定小数点の積和を通常のARGBにします.
+	 * packと同様に範囲を制限します。<br>
+	 */
+	private static int unpack(int a, int r, int g, int b) {
+		a = Math.min(PREMULTIPLIED_ONE, Math.max(0, a >> WEIGHT_SHIFT));
+		return unpremultiply(a,
+				Math.min(a, Math.max(0, r >> WEIGHT_SHIFT)),
+				Math.min(a, Math.max(0, g >> WEIGHT_SHIFT)),
+				Math.min(a, Math.max(0, b >> WEIGHT_SHIFT)));
+	}
+
+	/**
+	 * 中間形式の乗算済みの値を通常のARGBにします.
+	 * 色は8ビットに丸める前のアルファで割るため、乗算済みにした時点の丸め誤差が色に残りません。<br>
+	 */
+	private static int unpremultiply(int a, int r, int g, int b) {
+		int alpha = (a + 127) / 255;
+		if (alpha == 0) {
+			return ARGBColor.CLEAR_BLACK;
+		}
+		int h = a >> 1;
+		return alpha << 24
+				| (r * 255 + h) / a << 16
+				| (g * 255 + h) / a << 8
+				| (b * 255 + h) / a;
+	}
+
+	@Override
+	public String toString() {
+		return "Resampler{" + "filter=" + filter + ", executor=" + executor + '}';
+	}
+}
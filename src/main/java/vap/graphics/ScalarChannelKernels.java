@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+/**
+ * ChannelKernelsのスカラ演算による実装です.
+ *
+ * @version 1.0.0 - 2026/10/18_11:02:15<br>
+ * @author Shinacho<br>
+ */
+final class ScalarChannelKernels implements ChannelKernels {
+
+	static final ScalarChannelKernels INSTANCE = new ScalarChannelKernels();
+
+	private ScalarChannelKernels() {
+	}
+
+	@Override
+	public void grayScale(int[] src, int[] dst, int from, int to) {
+		for (int i = from; i < to; i++) {
+			int v = src[i];
+			int a = ((v >>> 16 & 0xFF) + (v >>> 8 & 0xFF) + (v & 0xFF)) * DIV3 >>> 16;
+			dst[i] = v & ARGBColor.ARGB_ALPHA_MASK | a << 16 | a << 8 | a;
+		}
+	}
+
+	@Override
+	public void weightedGrayScale(int[] src, int[] dst, int from, int to) {
+		for (int i = from; i < to; i++) {
+			int v = src[i];
+			int a = ((v >>> 16 & 0xFF) * WEIGHT_R + (v >>> 8 & 0xFF) * WEIGHT_G + (v & 0xFF) * WEIGHT_B) >>> 16;
+			dst[i] = v & ARGBColor.ARGB_ALPHA_MASK | a << 16 | a << 8 | a;
+		}
+	}
+
+	@Override
+	public void reverse(int[] src, int[] dst, int from, int to) {
+		for (int i = from; i < to; i++) {
+			dst[i] = src[i] ^ ARGBColor.CLEAR_WHITE;
+		}
+	}
+
+	@Override
+	public void mulAlpha(int[] src, int[] dst, int from, int to, float mul) {
+		int m = ChannelKernels.alphaMultiplier(mul);
+		for (int i = from; i < to; i++) {
+			int v = src[i];
+			int a = Math.min(255, (v >>> 24) * m >>> 8);
+			dst[i] = a << 24 | v & ARGBColor.CLEAR_WHITE;
+		}
+	}
+
+	@Override
+	public void monochrome(int[] src, int[] dst, int from, int to, int center) {
+		for (int i = from; i < to; i++) {
+			int v = src[i];
+			int a = ((v >>> 16 & 0xFF) + (v >>> 8 & 0xFF) + (v & 0xFF)) * DIV3 >>> 16;
+			dst[i] = a > center ? ARGBColor.WHITE : ARGBColor.BLACK;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ScalarChannelKernels";
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RasterImageを拡大縮小した画像を保持するスレッドセーフなキャッシュです.
+ * <br>
+ * RasterImage.resizeToCachedで拡大縮小した画像だけが保持されます。resizeToの結果は保持されません。<br>
+ * 画像は元の画像ごとに、大きさと補間フィルタの組み合わせをキーとして保持されます。
+ * 同じ大きさが再度要求された場合は、保持している画像の複製(コピーオンライト)を返すため、拡大縮小は行われません。<br>
+ * 新しい大きさに縮小する場合は、同じフィルタで保持している画像のうち、要求された大きさ以上で最も小さいものから縮小します。<br>
+ * キャッシュの大きさは画像のバイト数(幅 x 高さ x 4)の合計で制限され、
+ * 上限を超えると全ての元の画像を通して最も長く使用されていない画像から破棄されます(LRU)。<br>
+ * 元の画像の内容が変更されると(RasterImage.contentChanged)、その画像から作成した画像は全て破棄されます。<br>
+ * ピクセルを他の参照と共有しているRasterImageは書き換えを検知できないため、このキャッシュを使用しません。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_21:48:12<br>
+ * @author Shinacho<br>
+ */
+public final class ScaledImageCache {
+
+	private static final class Key {
+
+		/**
+		 * 元の画像ごとのキーです.同一性で比較します。
+		 */
+		private final Object owner;
+		private final int width;
+		private final int height;
+		private final ResampleFilter filter;
+
+		private Key(Object owner, int width, int height, ResampleFilter filter) {
+			this.owner = owner;
+			this.width = width;
+			this.height = height;
+			this.filter = filter;
+		}
+
+		@Override
+		public int hashCode() {
+			return (System.identityHashCode(owner) * 31 + width) * 31 + height + filter.ordinal() * 7919;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key k)) {
+				return false;
+			}
+			return owner == k.owner && width == k.width && height == k.height && filter == k.filter;
+		}
+	}
+
+	private static volatile ScaledImageCache defaultCache;
+
+	/**
+	 * 既定のキャッシュを返します.
+	 * 上限はシステムプロパティvap.graphics.scaledImageCacheBytesで指定でき、既定値は最大ヒープサイズの1/16です。<br>
+	 *
+	 * @return 既定のキャッシュ.<br>
+	 */
+	public static ScaledImageCache getDefault() {
+		ScaledImageCache c = defaultCache;
+		if (c == null) {
+			synchronized (ScaledImageCache.class) {
+				c = defaultCache;
+				if (c == null) {
+					defaultCache = c = new ScaledImageCache(
+							Long.getLong("vap.graphics.scaledImageCacheBytes", Runtime.getRuntime().maxMemory() / 16));
+				}
+			}
+		}
+		return c;
+	}
+
+	private final long maxBytes;
+	//アクセス順のLinkedHashMap
+	private final LinkedHashMap<Key, RasterImage> entries = new LinkedHashMap<>(64, 0.75f, true);
+	private final HashMap<Object, List<Key>> owners = new HashMap<>();
+	private long bytes;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * キャッシュを作成します.
+	 *
+	 * @param maxBytes 保持する画像のバイト数の合計の上限.<br>
+	 *
+	 * @throws IllegalArgumentException maxBytesが負の場合.<br>
+	 */
+	public ScaledImageCache(long maxBytes) throws IllegalArgumentException {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("ScaledImageCache : maxBytes=[" + maxBytes + "]");
+		}
+		this.maxBytes = maxBytes;
+	}
+
+	private static long weightOf(int w, int h) {
+		return (long) w * h * 4;
+	}
+
+	/**
+	 * 拡大縮小した画像を取得します.
+	 * キャッシュにない場合は作成して保持します。<br>
+	 *
+	 * @param owner 元の画像のキー.元の画像の内容が変わるまで同じインスタンスを使用します。<br>
+	 * @param source 元の画像.<br>
+	 * @param w 幅.<br>
+	 * @param h 高さ.<br>
+	 * @param filter 補間フィルタ.<br>
+	 *
+	 * @return 拡大縮小した画像の複製.<br>
+	 */
+	RasterImage get(Object owner, RasterImage source, int w, int h, ResampleFilter filter) {
+		Key key = new Key(owner, w, h, filter);
+		RasterImage base;
+		synchronized (this) {
+			RasterImage e = entries.get(key);
+			if (e != null) {
+				hitCount++;
+				return e.clone();
+			}
+			missCount++;
+			base = nearestLarger(key, source);
+		}
+		//キャッシュが保持している画像は書き換えられないため、ロックの外で読み取ってよい
+		RasterImage scaled = base.resample(w, h, filter);
+		long weight = weightOf(w, h);
+		if (weight > maxBytes) {
+			return scaled;
+		}
+		synchronized (this) {
+			RasterImage e = entries.get(key);
+			if (e != null) {
+				return e.clone();
+			}
+			entries.put(key, scaled);
+			owners.computeIfAbsent(owner, k -> new ArrayList<>(4)).add(key);
+			bytes += weight;
+			evict();
+			return scaled.clone();
+		}
+	}
+
+	/**
+	 * 縮小の元にする画像を選択します.
+	 * 元の画像より小さく、要求された大きさ以上の画像のうち、最も小さいものを返します。<br>
+	 */
+	private RasterImage nearestLarger(Key key, RasterImage source) {
+		List<Key> keys = owners.get(key.owner);
+		if (keys == null) {
+			return source;
+		}
+		Key best = null;
+		for (Key k : keys) {
+			if (k.filter != key.filter || k.width < key.width || k.height < key.height
+					|| k.width > source.getWidth() || k.height > source.getHeight()) {
+				continue;
+			}
+			if (best == null || (long) k.width * k.height < (long) best.width * best.height) {
+				best = k;
+			}
+		}
+		//entries.getはアクセス順を更新する
+		return best == null ? source : entries.get(best);
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<Key, RasterImage>> i = entries.entrySet().iterator();
+		while (bytes > maxBytes && i.hasNext()) {
+			Key k = i.next().getKey();
+			i.remove();
+			removeOwnerKey(k);
+			bytes -= weightOf(k.width, k.height);
+			evictionCount++;
+		}
+	}
+
+	private void removeOwnerKey(Key k) {
+		List<Key> keys = owners.get(k.owner);
+		if (keys != null) {
+			keys.remove(k);
+			if (keys.isEmpty()) {
+				owners.remove(k.owner);
+			}
+		}
+	}
+
+	/**
+	 * 元の画像から作成した画像を全て破棄します.
+	 *
+	 * @param owner 元の画像のキー.<br>
+	 */
+	synchronized void invalidate(Object owner) {
+		List<Key> keys = owners.remove(owner);
+		if (keys == null) {
+			return;
+		}
+		for (Key k : keys) {
+			entries.remove(k);
+			bytes -= weightOf(k.width, k.height);
+		}
+	}
+
+	/**
+	 * 保持している画像を全て破棄します.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		owners.clear();
+		bytes = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ScaledImageCache{" + "size=" + entries.size() + ", bytes=" + bytes + ", maxBytes=" + maxBytes
+				+ ", hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount + '}';
+	}
+}
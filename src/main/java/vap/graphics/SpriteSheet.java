@@ -0,0 +1,323 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+
+/**
+ * 1枚の画像を同じ大きさのセルに分割したスプライトシートです.
+ * <br>
+ * 各セルは元の画像とピクセルを共有する部分画像で、初めて参照されたときに生成されます。
+ * そのため、多数のセルを持つシートを読み込んでも、使用しないセルのためのメモリは確保されません。<br>
+ * セルは(x, y)の位置、左上から右方向に数えた番号、または名前で取得できます。
+ * 名前と番号の対応はシートの作成時に作られます。<br>
+ * セルの取得は複数のスレッドから同時に行うことができます。<br>
+ * セルは元の画像と同じピクセルを参照するため、元の画像を書き換えるとセルの内容も変わります。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_16:48:12<br>
+ * @author Shinacho<br>
+ */
+public final class SpriteSheet {
+
+	private final RasterImage sheet;
+	private final int cellWidth;
+	private final int cellHeight;
+	private final int columns;
+	private final int rows;
+	private final AtomicReferenceArray<RasterImage> cells;
+	private final Map<String, Integer> nameIndex;
+	private final String[] names;
+
+	/**
+	 * 名前を持たないスプライトシートを作成します.
+	 *
+	 * @param sheet 元の画像.<br>
+	 * @param cellWidth セルの幅.<br>
+	 * @param cellHeight セルの高さ.<br>
+	 *
+	 * @throws IllegalArgumentException セルの大きさが不正な場合.<br>
+	 */
+	public SpriteSheet(RasterImage sheet, int cellWidth, int cellHeight) throws IllegalArgumentException {
+		this(sheet, cellWidth, cellHeight, null);
+	}
+
+	/**
+	 * 名前を持つスプライトシートを作成します.
+	 *
+	 * @param sheet 元の画像.<br>
+	 * @param cellWidth セルの幅.<br>
+	 * @param cellHeight セルの高さ.<br>
+	 * @param nameMapper セルの位置(x, y)から名前を作成する関数.nullの場合は名前を持ちません。<br>
+	 *
+	 * @throws IllegalArgumentException セルの大きさが不正な場合、または名前が重複する場合.<br>
+	 */
+	public SpriteSheet(RasterImage sheet, int cellWidth, int cellHeight, BiFunction<Integer, Integer, String> nameMapper)
+			throws IllegalArgumentException {
+		if (cellWidth <= 0 || cellHeight <= 0) {
+			throw new IllegalArgumentException("SpriteSheet : cell size is invalid : w=[" + cellWidth + "] h=[" + cellHeight + "]");
+		}
+		this.sheet = new RasterImage(sheet);
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		this.columns = sheet.getWidth() / cellWidth;
+		this.rows = sheet.getHeight() / cellHeight;
+		this.cells = new AtomicReferenceArray<>(columns * rows);
+		if (nameMapper == null) {
+			this.nameIndex = Collections.emptyMap();
+			this.names = null;
+		} else {
+			this.names = new String[columns * rows];
+			this.nameIndex = new HashMap<>(names.length * 4 / 3 + 1);
+			for (int y = 0, i = 0; y < rows; y++) {
+				for (int x = 0; x < columns; x++, i++) {
+					String name = nameMapper.apply(x, y);
+					if (nameIndex.putIfAbsent(name, i) != null) {
+						throw new IllegalArgumentException("SpriteSheet : duplicate name : name=[" + name + "]");
+					}
+					names[i] = name;
+				}
+			}
+		}
+	}
+
+	/**
+	 * 番号を指定してセルを取得します.
+	 * 番号は左上から右方向に数え、行の終わりで次の行に進みます。<br>
+	 *
+	 * @param index セルの番号.<br>
+	 *
+	 * @return セル.元の画像とピクセルを共有します。<br>
+	 *
+	 * @throws IndexOutOfBoundsException 番号が範囲外の場合.<br>
+	 */
+	public RasterImage get(int index) throws IndexOutOfBoundsException {
+		RasterImage c = cells.get(index);
+		if (c != null) {
+			return c;
+		}
+		int x = index % columns * cellWidth;
+		int y = index / columns * cellHeight;
+		c = sheet.subImage(x, y, cellWidth, cellHeight);
+		RasterImage prev = cells.compareAndExchange(index, null, c);
+		return prev == null ? c : prev;
+	}
+
+	/**
+	 * 位置を指定してセルを取得します.
+	 *
+	 * @param x セルの列.<br>
+	 * @param y セルの行.<br>
+	 *
+	 * @return セル.元の画像とピクセルを共有します。<br>
+	 *
+	 * @throws IndexOutOfBoundsException 位置が範囲外の場合.<br>
+	 */
+	public RasterImage get(int x, int y) throws IndexOutOfBoundsException {
+		if (x < 0 || x >= columns || y < 0 || y >= rows) {
+			throw new IndexOutOfBoundsException("SpriteSheet : x=[" + x + "] y=[" + y + "]");
+		}
+		return get(y * columns + x);
+	}
+
+	/**
+	 * 名前を指定してセルを取得します.
+	 *
+	 * @param name セルの名前.<br>
+	 *
+	 * @return セル.その名前のセルがない場合はnull。<br>
+	 */
+	public RasterImage get(String name) {
+		Integer i = nameIndex.get(name);
+		return i == null ? null : get(i);
+	}
+
+	/**
+	 * 名前を持つセルが存在するかを検査します.
+	 *
+	 * @param name セルの名前.<br>
+	 *
+	 * @return 存在する場合true.<br>
+	 */
+	public boolean contains(String name) {
+		return nameIndex.containsKey(name);
+	}
+
+	/**
+	 * セルの名前を返します.
+	 *
+	 * @param index セルの番号.<br>
+	 *
+	 * @return セルの名前.名前を持たない場合はnull。<br>
+	 */
+	public String nameOf(int index) {
+		return names == null ? null : names[index];
+	}
+
+	/**
+	 * 全ての名前を返します.
+	 *
+	 * @return 変更できない名前のセット.<br>
+	 */
+	public Set<String> names() {
+		return Collections.unmodifiableSet(nameIndex.keySet());
+	}
+
+	/**
+	 * 1行分のセルを返します.
+	 * リストの要素は参照されたときに生成されます。<br>
+	 *
+	 * @param y セルの行.<br>
+	 *
+	 * @return 変更できないリスト.<br>
+	 */
+	public List<RasterImage> row(int y) {
+		if (y < 0 || y >= rows) {
+			throw new IndexOutOfBoundsException("SpriteSheet : y=[" + y + "]");
+		}
+		return new CellList(y * columns, 1, columns);
+	}
+
+	/**
+	 * 1列分のセルを返します.
+	 * リストの要素は参照されたときに生成されます。<br>
+	 *
+	 * @param x セルの列.<br>
+	 *
+	 * @return 変更できないリスト.<br>
+	 */
+	public List<RasterImage> column(int x) {
+		if (x < 0 || x >= columns) {
+			throw new IndexOutOfBoundsException("SpriteSheet : x=[" + x + "]");
+		}
+		return new CellList(x, columns, rows);
+	}
+
+	/**
+	 * 全てのセルを番号順に返します.
+	 * リストの要素は参照されたときに生成されます。<br>
+	 *
+	 * @return 変更できないリスト.<br>
+	 */
+	public List<RasterImage> asList() {
+		return new CellList(0, 1, columns * rows);
+	}
+
+	/**
+	 * 名前とセルのマップを作成します.
+	 * このメソッドは全てのセルを生成します。<br>
+	 *
+	 * @return 番号順に並んだ新しいマップ.名前を持たない場合は空のマップ。<br>
+	 */
+	public Map<String, RasterImage> asMap() {
+		Map<String, RasterImage> res = new LinkedHashMap<>(nameIndex.size() * 4 / 3 + 1);
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				res.put(names[i], get(i));
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * 既に生成されたセルの数を返します.
+	 *
+	 * @return 生成済みのセルの数.<br>
+	 */
+	public int loadedCount() {
+		int n = 0;
+		for (int i = 0; i < cells.length(); i++) {
+			if (cells.get(i) != null) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	public RasterImage getSheet() {
+		return sheet;
+	}
+
+	public int getCellWidth() {
+		return cellWidth;
+	}
+
+	public int getCellHeight() {
+		return cellHeight;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int size() {
+		return columns * rows;
+	}
+
+	@Override
+	public String toString() {
+		return "SpriteSheet{" + "cellWidth=" + cellWidth + ", cellHeight=" + cellHeight
+				+ ", columns=" + columns + ", rows=" + rows + '}';
+	}
+
+	/**
+	 * 等間隔に並んだセルを参照するリストです.
+	 */
+	private final class CellList extends AbstractList<RasterImage> {
+
+		private final int start;
+		private final int step;
+		private final int size;
+
+		private CellList(int start, int step, int size) {
+			this.start = start;
+			this.step = step;
+			this.size = size;
+		}
+
+		@Override
+		public RasterImage get(int i) {
+			if (i < 0 || i >= size) {
+				throw new IndexOutOfBoundsException("SpriteSheet : index=[" + i + "]");
+			}
+			return SpriteSheet.this.get(start + i * step);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,423 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 複数の画像を少数の大きな画像(ページ)に詰め込んだテクスチャアトラスです.
+ * <br>
+ * 画像はスカイライン法で配置され、ページの大きさは2のべき乗になります。
+ * 1枚のページに収まらない場合は複数のページが作成されます。<br>
+ * 各画像がどのページのどの位置にあるかは名前で検索できます。
+ * 同じページからの描画を続けて行うと、描画のたびに異なる画像を切り替えるより高速になります。<br>
+ * ページはTYPE_INT_ARGBの画像で、Java2Dによる描画の高速化の対象になります。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_17:05:38<br>
+ * @author Shinacho<br>
+ */
+public final class TextureAtlas {
+
+	/**
+	 * ページの大きさの既定の最大値です.
+	 */
+	public static final int DEFAULT_MAX_PAGE_SIZE = 2048;
+
+	/**
+	 * アトラス内の1つの画像の位置です.
+	 */
+	public static final class Region {
+
+		private final String name;
+		private final int page;
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+
+		private Region(String name, int page, int x, int y, int width, int height) {
+			this.name = name;
+			this.page = page;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getPage() {
+			return page;
+		}
+
+		public int getX() {
+			return x;
+		}
+
+		public int getY() {
+			return y;
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+
+		public Rectangle toRectangle() {
+			return new Rectangle(x, y, width, height);
+		}
+
+		@Override
+		public String toString() {
+			return "Region{" + "name=" + name + ", page=" + page + ", x=" + x + ", y=" + y
+					+ ", width=" + width + ", height=" + height + '}';
+		}
+	}
+
+	private final List<RasterImage> pages;
+	private final Map<String, Region> regions;
+
+	private TextureAtlas(List<RasterImage> pages, Map<String, Region> regions) {
+		this.pages = pages;
+		this.regions = regions;
+	}
+
+	/**
+	 * 既定の設定で画像を詰め込みます.
+	 *
+	 * @param images 名前と画像のマップ.<br>
+	 *
+	 * @return 新しいアトラス.<br>
+	 *
+	 * @throws IllegalArgumentException ページに収まらない画像がある場合.<br>
+	 */
+	public static TextureAtlas pack(Map<String, RasterImage> images) throws IllegalArgumentException {
+		return pack(images, DEFAULT_MAX_PAGE_SIZE, 0);
+	}
+
+	/**
+	 * 画像を詰め込みます.
+	 *
+	 * @param images 名前と画像のマップ.<br>
+	 * @param maxPageSize ページの幅と高さの最大値.2のべき乗に切り上げられます。<br>
+	 * @param padding 画像の右と下に空ける間隔.拡大縮小して描画する場合のにじみを防ぐために使用します。<br>
+	 *
+	 * @return 新しいアトラス.<br>
+	 *
+	 * @throws IllegalArgumentException ページに収まらない画像がある場合.<br>
+	 */
+	public static TextureAtlas pack(Map<String, RasterImage> images, int maxPageSize, int padding)
+			throws IllegalArgumentException {
+		if (maxPageSize <= 0 || padding < 0) {
+			throw new IllegalArgumentException("TextureAtlas : maxPageSize=[" + maxPageSize + "] padding=[" + padding + "]");
+		}
+		int size = ceilPow2(maxPageSize);
+		List<Map.Entry<String, RasterImage>> entries = new ArrayList<>(images.entrySet());
+		//高いものから配置すると、スカイラインの段差が少なくなる
+		entries.sort((a, b) -> {
+			int c = Integer.compare(b.getValue().getHeight(), a.getValue().getHeight());
+			return c != 0 ? c : Integer.compare(b.getValue().getWidth(), a.getValue().getWidth());
+		});
+		List<Skyline> skylines = new ArrayList<>();
+		Map<String, Region> regions = new LinkedHashMap<>(entries.size() * 4 / 3 + 1);
+		for (Map.Entry<String, RasterImage> e : entries) {
+			int w = e.getValue().getWidth() + padding;
+			int h = e.getValue().getHeight() + padding;
+			if (w - padding > size || h - padding > size) {
+				throw new IllegalArgumentException("TextureAtlas : image is too large : name=[" + e.getKey()
+						+ "] w=[" + e.getValue().getWidth() + "] h=[" + e.getValue().getHeight() + "]");
+			}
+			int page = 0;
+			int[] pos = null;
+			for (; page < skylines.size(); page++) {
+				if ((pos = skylines.get(page).insert(w, h)) != null) {
+					break;
+				}
+			}
+			if (pos == null) {
+				Skyline s = new Skyline(size);
+				skylines.add(s);
+				//パディングがページの端を越える場合も1枚目には必ず置けるようにする
+				pos = s.insert(Math.min(w, size), Math.min(h, size));
+			}
+			regions.put(e.getKey(), new Region(e.getKey(), page,
+					pos[0], pos[1], e.getValue().getWidth(), e.getValue().getHeight()));
+		}
+		//ページごとに、使用した範囲を覆う最小の2のべき乗の大きさでピクセルを作成する
+		int[] pw = new int[skylines.size()];
+		int[] ph = new int[skylines.size()];
+		for (Region r : regions.values()) {
+			pw[r.page] = Math.max(pw[r.page], r.x + r.width);
+			ph[r.page] = Math.max(ph[r.page], r.y + r.height);
+		}
+		int[][] pix = new int[skylines.size()][];
+		for (int i = 0; i < pix.length; i++) {
+			pw[i] = ceilPow2(pw[i]);
+			ph[i] = ceilPow2(ph[i]);
+			pix[i] = new int[pw[i] * ph[i]];
+		}
+		for (Region r : regions.values()) {
+			ImageUtil.getPixels(images.get(r.name).image, 0, 0, r.width, r.height,
+					pix[r.page], r.y * pw[r.page] + r.x, pw[r.page]);
+		}
+		List<RasterImage> pages = new ArrayList<>(pix.length);
+		for (int i = 0; i < pix.length; i++) {
+			//setDataElementsはデータバッファを取り出さないため、ページは描画の高速化の対象のまま残る
+			BufferedImage p = new BufferedImage(pw[i], ph[i], BufferedImage.TYPE_INT_ARGB);
+			p.getRaster().setDataElements(0, 0, pw[i], ph[i], pix[i]);
+			pages.add(new RasterImage(p, false));
+		}
+		return new TextureAtlas(Collections.unmodifiableList(pages), Collections.unmodifiableMap(regions));
+	}
+
+	private static int ceilPow2(int v) {
+		return v <= 1 ? 1 : Integer.highestOneBit(v - 1) << 1;
+	}
+
+	/**
+	 * 画像の位置を返します.
+	 *
+	 * @param name 画像の名前.<br>
+	 *
+	 * @return 位置.その名前の画像がない場合はnull。<br>
+	 */
+	public Region getRegion(String name) {
+		return regions.get(name);
+	}
+
+	/**
+	 * 全ての画像の位置を返します.
+	 *
+	 * @return 変更できないマップ.<br>
+	 */
+	public Map<String, Region> getRegions() {
+		return regions;
+	}
+
+	public boolean contains(String name) {
+		return regions.containsKey(name);
+	}
+
+	/**
+	 * 画像をページの部分画像として返します.
+	 * 返される画像はページとピクセルを共有します。<br>
+	 *
+	 * @param name 画像の名前.<br>
+	 *
+	 * @return 部分画像.その名前の画像がない場合はnull。<br>
+	 */
+	public RasterImage getImage(String name) {
+		Region r = regions.get(name);
+		return r == null ? null : pages.get(r.page).subImage(r.x, r.y, r.width, r.height);
+	}
+
+	/**
+	 * 画像を描画します.
+	 *
+	 * @param g 描画先.<br>
+	 * @param name 画像の名前.<br>
+	 * @param x 描画する位置.<br>
+	 * @param y 描画する位置.<br>
+	 *
+	 * @throws IllegalArgumentException その名前の画像がない場合.<br>
+	 */
+	public void draw(Graphics2D g, String name, int x, int y) throws IllegalArgumentException {
+		Region r = region(name);
+		draw(g, r, x, y, r.width, r.height);
+	}
+
+	/**
+	 * 画像を拡大縮小して描画します.
+	 *
+	 * @param g 描画先.<br>
+	 * @param name 画像の名前.<br>
+	 * @param x 描画する位置.<br>
+	 * @param y 描画する位置.<br>
+	 * @param w 描画する幅.<br>
+	 * @param h 描画する高さ.<br>
+	 *
+	 * @throws IllegalArgumentException その名前の画像がない場合.<br>
+	 */
+	public void draw(Graphics2D g, String name, int x, int y, int w, int h) throws IllegalArgumentException {
+		draw(g, region(name), x, y, w, h);
+	}
+
+	/**
+	 * 位置を指定して画像を描画します.
+	 * 名前の検索を省略できるため、同じ画像を繰り返し描画する場合に使用します。<br>
+	 *
+	 * @param g 描画先.<br>
+	 * @param r 画像の位置.<br>
+	 * @param x 描画する位置.<br>
+	 * @param y 描画する位置.<br>
+	 * @param w 描画する幅.<br>
+	 * @param h 描画する高さ.<br>
+	 */
+	public void draw(Graphics2D g, Region r, int x, int y, int w, int h) {
+		g.drawImage(pages.get(r.page).image, x, y, x + w, y + h,
+				r.x, r.y, r.x + r.width, r.y + r.height, null);
+	}
+
+	private Region region(String name) throws IllegalArgumentException {
+		Region r = regions.get(name);
+		if (r == null) {
+			throw new IllegalArgumentException("TextureAtlas : region not found : name=[" + name + "]");
+		}
+		return r;
+	}
+
+	public List<RasterImage> getPages() {
+		return pages;
+	}
+
+	public int getPageCount() {
+		return pages.size();
+	}
+
+	public int size() {
+		return regions.size();
+	}
+
+	@Override
+	public String toString() {
+		return "TextureAtlas{" + "pages=" + pages.size() + ", regions=" + regions.size() + '}';
+	}
+
+	/**
+	 * 1枚のページの上端の輪郭(スカイライン)を管理し、矩形の配置位置を決定します.
+	 * 輪郭は x の昇順に並んだ水平な線分の列で、各線分は(x, y, 幅)で表されます。<br>
+	 */
+	private static final class Skyline {
+
+		private final int size;
+		private int[] xs = new int[16];
+		private int[] ys = new int[16];
+		private int[] ws = new int[16];
+		private int count;
+
+		private Skyline(int size) {
+			this.size = size;
+			xs[0] = 0;
+			ys[0] = 0;
+			ws[0] = size;
+			count = 1;
+		}
+
+		/**
+		 * 矩形を配置します.上端が最も低くなる位置を選び、同じ場合は左の位置を選びます。
+		 *
+		 * @return 配置した位置{x, y}.収まらない場合はnull。
+		 */
+		private int[] insert(int w, int h) {
+			int best = -1;
+			int bestY = Integer.MAX_VALUE;
+			int bestTop = Integer.MAX_VALUE;
+			for (int i = 0; i < count; i++) {
+				int x = xs[i];
+				if (x + w > size) {
+					break;
+				}
+				//[x, x + w) を覆う線分の最も高い位置
+				int y = 0;
+				for (int j = i, remain = w; remain > 0; j++) {
+					y = Math.max(y, ys[j]);
+					remain -= ws[j];
+				}
+				if (y + h > size) {
+					continue;
+				}
+				if (y + h < bestTop) {
+					bestTop = y + h;
+					bestY = y;
+					best = i;
+				}
+			}
+			if (best < 0) {
+				return null;
+			}
+			int x = xs[best];
+			add(best, x, bestY + h, w);
+			return new int[]{x, bestY};
+		}
+
+		/**
+		 * index の位置に線分を挿入し、その線分に隠れる範囲を後続の線分から取り除きます.
+		 */
+		private void add(int index, int x, int y, int w) {
+			if (count == xs.length) {
+				xs = Arrays.copyOf(xs, count * 2);
+				ys = Arrays.copyOf(ys, count * 2);
+				ws = Arrays.copyOf(ws, count * 2);
+			}
+			System.arraycopy(xs, index, xs, index + 1, count - index);
+			System.arraycopy(ys, index, ys, index + 1, count - index);
+			System.arraycopy(ws, index, ws, index + 1, count - index);
+			xs[index] = x;
+			ys[index] = y;
+			ws[index] = w;
+			count++;
+			int end = x + w;
+			int i = index + 1;
+			while (i < count && xs[i] < end) {
+				int cut = end - xs[i];
+				if (cut >= ws[i]) {
+					remove(i);
+				} else {
+					xs[i] += cut;
+					ws[i] -= cut;
+					break;
+				}
+			}
+			//同じ高さの隣り合う線分を結合する
+			for (i = Math.max(1, index); i < Math.min(count, index + 2);) {
+				if (ys[i - 1] == ys[i]) {
+					ws[i - 1] += ws[i];
+					remove(i);
+				} else {
+					i++;
+				}
+			}
+		}
+
+		private void remove(int i) {
+			System.arraycopy(xs, i + 1, xs, i, count - i - 1);
+			System.arraycopy(ys, i + 1, ys, i, count - i - 1);
+			System.arraycopy(ws, i + 1, ws, i, count - i - 1);
+			count--;
+		}
+	}
+}
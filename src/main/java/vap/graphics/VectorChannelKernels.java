@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ChannelKernelsのVector APIによる実装です.
+ * <br>
+ * ループは実行環境の推奨レーン幅で処理し、端数はスカラ実装で処理します。<br>
+ * このクラスはjdk.incubator.vectorモジュールが利用可能な場合にのみリフレクションでロードされます。<br>
+ *
+ * @version 1.0.0 - 2026/10/18_11:02:15<br>
+ * @author Shinacho<br>
+ */
+final class VectorChannelKernels implements ChannelKernels {
+
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	private final ScalarChannelKernels tail = ScalarChannelKernels.INSTANCE;
+
+	VectorChannelKernels() throws UnsupportedOperationException {
+		if (SPECIES.length() < 4) {
+			throw new UnsupportedOperationException("SIMD is not available : lanes=[" + SPECIES.length() + "]");
+		}
+	}
+
+	private static IntVector gray(IntVector a) {
+		return a.lanewise(VectorOperators.LSHL, 16)
+				.or(a.lanewise(VectorOperators.LSHL, 8))
+				.or(a);
+	}
+
+	@Override
+	public void grayScale(int[] src, int[] dst, int from, int to) {
+		int i = from;
+		for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+			IntVector v = IntVector.fromArray(SPECIES, src, i);
+			IntVector a = v.lanewise(VectorOperators.LSHR, 16).and(0xFF)
+					.add(v.lanewise(VectorOperators.LSHR, 8).and(0xFF))
+					.add(v.and(0xFF))
+					.mul(DIV3).lanewise(VectorOperators.LSHR, 16);
+			v.and(ARGBColor.ARGB_ALPHA_MASK).or(gray(a)).intoArray(dst, i);
+		}
+		tail.grayScale(src, dst, i, to);
+	}
+
+	@Override
+	public void weightedGrayScale(int[] src, int[] dst, int from, int to) {
+		int i = from;
+		for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+			IntVector v = IntVector.fromArray(SPECIES, src, i);
+			IntVector a = v.lanewise(VectorOperators.LSHR, 16).and(0xFF).mul(WEIGHT_R)
+					.add(v.lanewise(VectorOperators.LSHR, 8).and(0xFF).mul(WEIGHT_G))
+					.add(v.and(0xFF).mul(WEIGHT_B))
+					.lanewise(VectorOperators.LSHR, 16);
+			v.and(ARGBColor.ARGB_ALPHA_MASK).or(gray(a)).intoArray(dst, i);
+		}
+		tail.weightedGrayScale(src, dst, i, to);
+	}
+
+	@Override
+	public void reverse(int[] src, int[] dst, int from, int to) {
+		int i = from;
+		for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+			IntVector.fromArray(SPECIES, src, i)
+					.lanewise(VectorOperators.XOR, ARGBColor.CLEAR_WHITE)
+					.intoArray(dst, i);
+		}
+		tail.reverse(src, dst, i, to);
+	}
+
+	@Override
+	public void mulAlpha(int[] src, int[] dst, int from, int to, float mul) {
+		int m = ChannelKernels.alphaMultiplier(mul);
+		int i = from;
+		for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+			IntVector v = IntVector.fromArray(SPECIES, src, i);
+			IntVector a = v.lanewise(VectorOperators.LSHR, 24).mul(m)
+					.lanewise(VectorOperators.LSHR, 8).min(255);
+			a.lanewise(VectorOperators.LSHL, 24).or(v.and(ARGBColor.CLEAR_WHITE)).intoArray(dst, i);
+		}
+		tail.mulAlpha(src, dst, i, to, mul);
+	}
+
+	@Override
+	public void monochrome(int[] src, int[] dst, int from, int to, int center) {
+		IntVector white = IntVector.broadcast(SPECIES, ARGBColor.WHITE);
+		IntVector black = IntVector.broadcast(SPECIES, ARGBColor.BLACK);
+		int i = from;
+		for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+			IntVector v = IntVector.fromArray(SPECIES, src, i);
+			IntVector a = v.lanewise(VectorOperators.LSHR, 16).and(0xFF)
+					.add(v.lanewise(VectorOperators.LSHR, 8).and(0xFF))
+					.add(v.and(0xFF))
+					.mul(DIV3).lanewise(VectorOperators.LSHR, 16);
+			VectorMask<Integer> bright = a.compare(VectorOperators.GT, center);
+			black.blend(white, bright).intoArray(dst, i);
+		}
+		tail.monochrome(src, dst, i, to, center);
+	}
+
+	@Override
+	public String toString() {
+		return "VectorChannelKernels{" + "lanes=" + SPECIES.length() + '}';
+	}
+}
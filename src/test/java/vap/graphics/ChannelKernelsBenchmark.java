@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2025 owner.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package vap.graphics;
+
+import java.util.Random;
+
+/**
+ * ChannelKernelsのスカラ実装と実行環境で選択される実装の速度を比較します.
+ * <br>
+ * 各カーネルを同じ入力で繰り返し実行し、1ピクセルあたりの時間(ナノ秒)と速度比を標準出力に表示します。<br>
+ * Vector APIの実装を計測するには、"--add-modules jdk.incubator.vector"を指定して実行してください。<br>
+ * 計測用のツールのため、配布するjarに含まれないようにテストのソースに置いています。
+ * test-compileの後に、クラスパスにtest-classesを含めて実行してください。<br>
+ * 引数 : [ピクセル数(既定 1920x1080)] [計測回数(既定 200)]<br>
+ *
+ * @version 1.0.0 - 2026/10/18_23:41:07<br>
+ * @author Shinacho<br>
+ */
+public final class ChannelKernelsBenchmark {
+
+	private interface Kernel {
+
+		void run(ChannelKernels k, int[] src, int[] dst);
+	}
+
+	/**
+	 * ユーティリティクラスのためインスタンス化できません.
+	 */
+	private ChannelKernelsBenchmark() {
+	}
+
+	public static void main(String[] args) {
+		int pixels = args.length > 0 ? Integer.parseInt(args[0]) : 1920 * 1080;
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		int[] src = new int[pixels];
+		int[] dst = new int[pixels];
+		Random r = new Random(0);
+		for (int i = 0; i < pixels; i++) {
+			src[i] = r.nextInt();
+		}
+		ChannelKernels scalar = ChannelKernels.scalar();
+		ChannelKernels selected = ChannelKernels.getInstance();
+		System.out.println("selected=[" + selected.getClass().getSimpleName() + "] pixels=[" + pixels + "] rounds=[" + rounds + "]");
+		bench("grayScale", (k, s, d) -> k.grayScale(s, d, 0, s.length), scalar, selected, src, dst, rounds);
+		bench("weightedGrayScale", (k, s, d) -> k.weightedGrayScale(s, d, 0, s.length), scalar, selected, src, dst, rounds);
+		bench("reverse", (k, s, d) -> k.reverse(s, d, 0, s.length), scalar, selected, src, dst, rounds);
+		bench("mulAlpha", (k, s, d) -> k.mulAlpha(s, d, 0, s.length, 0.5f), scalar, selected, src, dst, rounds);
+		bench("monochrome", (k, s, d) -> k.monochrome(s, d, 0, s.length, 128), scalar, selected, src, dst, rounds);
+	}
+
+	private static void bench(String name, Kernel kernel, ChannelKernels scalar, ChannelKernels selected,
+			int[] src, int[] dst, int rounds) {
+		double s = measure(kernel, scalar, src, dst, rounds);
+		double v = measure(kernel, selected, src, dst, rounds);
+		System.out.printf("%-18s scalar=%.3fns/px selected=%.3fns/px speedup=%.2fx%n", name, s, v, s / v);
+	}
+
+	private static double measure(Kernel kernel, ChannelKernels k, int[] src, int[] dst, int rounds) {
+		//JITによるコンパイルが完了するまで実行する
+		for (int i = 0; i < rounds; i++) {
+			kernel.run(k, src, dst);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < rounds; i++) {
+			kernel.run(k, src, dst);
+		}
+		return (double) (System.nanoTime() - start) / rounds / src.length;
+	}
+}